@@ -1,5 +1,6 @@
 package ru.practicum.main.category.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
@@ -22,8 +23,10 @@ public class PublicCategoryController {
 
     @GetMapping
     public List<CategoryDto> getAll(@RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                    @RequestParam(defaultValue = "10") @Positive int size) {
-        return service.getAll(from, size);
+                                    @RequestParam(defaultValue = "10") @Positive int size,
+                                    @RequestParam(required = false) String after,
+                                    HttpServletResponse response) {
+        return service.getAll(from, size, after).writeTo(response);
     }
 
     @GetMapping("/{catId}")
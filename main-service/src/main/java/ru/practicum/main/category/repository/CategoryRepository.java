@@ -1,8 +1,12 @@
 package ru.practicum.main.category.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.main.category.model.Category;
 
+import java.util.List;
+
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+    List<Category> findByIdGreaterThan(long afterId, Pageable pageable);
 }
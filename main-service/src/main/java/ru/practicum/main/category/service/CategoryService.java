@@ -2,8 +2,7 @@ package ru.practicum.main.category.service;
 
 import ru.practicum.main.category.dto.CategoryDto;
 import ru.practicum.main.category.dto.NewCategoryDto;
-
-import java.util.List;
+import ru.practicum.main.pagination.CursorPage;
 
 public interface CategoryService {
 
@@ -15,5 +14,5 @@ public interface CategoryService {
 
     CategoryDto getById(long id);
 
-    List<CategoryDto> getAll(int from, int size);
+    CursorPage<CategoryDto> getAll(int from, int size, String after);
 }
@@ -1,7 +1,6 @@
 package ru.practicum.main.category.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,6 +12,8 @@ import ru.practicum.main.category.repository.CategoryRepository;
 import ru.practicum.main.event.repository.EventRepository;
 import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.NotFoundException;
+import ru.practicum.main.pagination.CursorPage;
+import ru.practicum.main.pagination.PageCursor;
 
 import java.util.List;
 
@@ -64,10 +65,16 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<CategoryDto> getAll(int from, int size) {
-        int page = from / size;
-        return repository.findAll(PageRequest.of(page, size, Sort.by("id")))
+    public CursorPage<CategoryDto> getAll(int from, int size, String after) {
+
+        PageCursor cursor = PageCursor.decode(after, PageCursor.BY_ID);
+
+        List<CategoryDto> categories = repository.findByIdGreaterThan(PageCursor.afterId(cursor),
+                        PageCursor.pageable(cursor, from, size, Sort.by("id")))
+                .stream()
                 .map(CategoryMapper::toDto)
                 .toList();
+
+        return CursorPage.of(categories, size, category -> PageCursor.byId(category.getId()));
     }
 }
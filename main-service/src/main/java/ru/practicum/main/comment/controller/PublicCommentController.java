@@ -1,5 +1,6 @@
 package ru.practicum.main.comment.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -21,7 +22,9 @@ public class PublicCommentController {
     @GetMapping
     public List<CommentDto> getEventComments(@PathVariable long eventId,
                                              @RequestParam(defaultValue = "0") int from,
-                                             @RequestParam(defaultValue = "10") int size) {
-        return commentService.getEventComments(eventId, from, size);
+                                             @RequestParam(defaultValue = "10") int size,
+                                             @RequestParam(required = false) String after,
+                                             HttpServletResponse response) {
+        return commentService.getEventComments(eventId, from, size, after).writeTo(response);
     }
 }
@@ -3,9 +3,13 @@ package ru.practicum.main.comment.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.main.comment.model.Comment;
 import ru.practicum.main.comment.model.CommentStatus;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -16,6 +20,17 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     Page<Comment> findByEventIdAndStatus(long eventId, CommentStatus status, Pageable pageable);
 
+    List<Comment> findAllByEventIdAndStatus(long eventId, CommentStatus status, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c " +
+            "WHERE c.event.id = :eventId AND c.status = :status " +
+            "  AND (c.createdOn < :createdOn OR (c.createdOn = :createdOn AND c.id < :id))")
+    List<Comment> findByEventIdAndStatusBefore(@Param("eventId") long eventId,
+                                               @Param("status") CommentStatus status,
+                                               @Param("createdOn") LocalDateTime createdOn,
+                                               @Param("id") long id,
+                                               Pageable pageable);
+
     Page<Comment> findByEventId(long eventId, Pageable pageable);
 
     Page<Comment> findByStatus(CommentStatus status, Pageable pageable);
@@ -5,6 +5,7 @@ import ru.practicum.main.comment.dto.NewCommentDto;
 import ru.practicum.main.comment.dto.UpdateCommentDto;
 import ru.practicum.main.comment.dto.UpdateCommentStatusRequest;
 import ru.practicum.main.comment.model.CommentStatus;
+import ru.practicum.main.pagination.CursorPage;
 
 import java.util.List;
 
@@ -18,7 +19,7 @@ public interface CommentService {
 
     void deleteUserComment(long userId, long commentId);
 
-    List<CommentDto> getEventComments(long eventId, int from, int size);
+    CursorPage<CommentDto> getEventComments(long eventId, int from, int size, String after);
 
     List<CommentDto> getAdminComments(Long eventId, CommentStatus status, int from, int size);
 
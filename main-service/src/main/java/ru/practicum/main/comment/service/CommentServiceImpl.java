@@ -19,6 +19,8 @@ import ru.practicum.main.event.model.Event;
 import ru.practicum.main.event.repository.EventRepository;
 import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.NotFoundException;
+import ru.practicum.main.pagination.CursorPage;
+import ru.practicum.main.pagination.PageCursor;
 import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
 
@@ -33,6 +35,7 @@ import static ru.practicum.main.config.Constant.USER_NOT_FOUND;
 @RequiredArgsConstructor
 public class CommentServiceImpl implements CommentService {
 
+    private static final String CREATED_ON = "createdOn";
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
@@ -62,7 +65,7 @@ public class CommentServiceImpl implements CommentService {
 
         ensureUserExists(userId);
 
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("createdOn").descending());
+        Pageable pageable = PageRequest.of(from / size, size, Sort.by(CREATED_ON).descending());
 
         return commentRepository.findByAuthorId(userId, pageable)
                 .stream()
@@ -102,23 +105,28 @@ public class CommentServiceImpl implements CommentService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<CommentDto> getEventComments(long eventId, int from, int size) {
+    public CursorPage<CommentDto> getEventComments(long eventId, int from, int size, String after) {
 
         ensureEventExists(eventId);
 
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("createdOn").descending());
+        PageCursor cursor = PageCursor.decode(after, CREATED_ON);
 
-        return commentRepository.findByEventIdAndStatus(eventId, CommentStatus.PUBLISHED, pageable)
-                .stream()
-                .map(CommentMapper::toDto)
-                .toList();
+        Pageable pageable = PageCursor.pageable(cursor, from, size, Sort.by(CREATED_ON, "id").descending());
+
+        List<Comment> comments = cursor == null
+                ? commentRepository.findAllByEventIdAndStatus(eventId, CommentStatus.PUBLISHED, pageable)
+                : commentRepository.findByEventIdAndStatusBefore(eventId, CommentStatus.PUBLISHED,
+                cursor.dateValue(), cursor.id(), pageable);
+
+        return CursorPage.of(comments.stream().map(CommentMapper::toDto).toList(), size,
+                comment -> PageCursor.of(CREATED_ON, comment.getCreatedOn(), comment.getId()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CommentDto> getAdminComments(Long eventId, CommentStatus status, int from, int size) {
 
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("createdOn").descending());
+        Pageable pageable = PageRequest.of(from / size, size, Sort.by(CREATED_ON).descending());
 
         if (eventId != null && status != null) {
 
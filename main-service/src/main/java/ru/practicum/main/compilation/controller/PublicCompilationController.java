@@ -1,5 +1,6 @@
 package ru.practicum.main.compilation.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
@@ -23,8 +24,10 @@ public class PublicCompilationController {
     @GetMapping
     public List<CompilationDto> getCompilations(@RequestParam(required = false) Boolean pinned,
                                                 @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                @RequestParam(defaultValue = "10") @Positive int size) {
-        return compilationService.getCompilations(pinned, from, size);
+                                                @RequestParam(defaultValue = "10") @Positive int size,
+                                                @RequestParam(required = false) String after,
+                                                HttpServletResponse response) {
+        return compilationService.getCompilations(pinned, from, size, after).writeTo(response);
     }
 
     @GetMapping("/{compId}")
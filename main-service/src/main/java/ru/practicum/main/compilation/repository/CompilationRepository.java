@@ -1,11 +1,28 @@
 package ru.practicum.main.compilation.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.main.compilation.model.Compilation;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
 
-    Page<Compilation> findByPinned(boolean pinned, Pageable pageable);
+    List<Compilation> findByIdGreaterThan(long afterId, Pageable pageable);
+
+    List<Compilation> findByPinnedAndIdGreaterThan(boolean pinned, long afterId, Pageable pageable);
+
+    @Query("SELECT c.id AS compilationId, e.id AS eventId " +
+            "FROM Compilation c JOIN c.events e " +
+            "WHERE c.id IN :compilationIds")
+    List<CompilationEvent> findCompilationEvents(@Param("compilationIds") Collection<Long> compilationIds);
+
+    interface CompilationEvent {
+        Long getCompilationId();
+
+        Long getEventId();
+    }
 }
@@ -3,8 +3,7 @@ package ru.practicum.main.compilation.service;
 import ru.practicum.main.compilation.dto.CompilationDto;
 import ru.practicum.main.compilation.dto.NewCompilationDto;
 import ru.practicum.main.compilation.dto.UpdateCompilationRequest;
-
-import java.util.List;
+import ru.practicum.main.pagination.CursorPage;
 
 public interface CompilationService {
 
@@ -14,7 +13,7 @@ public interface CompilationService {
 
     CompilationDto update(long compId, UpdateCompilationRequest request);
 
-    List<CompilationDto> getCompilations(Boolean pinned, int from, int size);
+    CursorPage<CompilationDto> getCompilations(Boolean pinned, int from, int size, String after);
 
     CompilationDto getCompilation(long compId);
 }
@@ -1,7 +1,6 @@
 package ru.practicum.main.compilation.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -11,30 +10,28 @@ import ru.practicum.main.compilation.dto.NewCompilationDto;
 import ru.practicum.main.compilation.dto.UpdateCompilationRequest;
 import ru.practicum.main.compilation.mapper.CompilationMapper;
 import ru.practicum.main.compilation.model.Compilation;
+import ru.practicum.main.compilation.repository.CompilationRepository.CompilationEvent;
 import ru.practicum.main.compilation.repository.CompilationRepository;
 import ru.practicum.main.event.dto.EventShortDto;
 import ru.practicum.main.event.mapper.EventMapper;
 import ru.practicum.main.event.model.Event;
 import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.event.repository.EventShortView;
+import ru.practicum.main.event.service.EventViewsLoader;
 import ru.practicum.main.exception.NotFoundException;
-import ru.practicum.main.request.enums.RequestCount;
-import ru.practicum.main.request.enums.RequestStatus;
-import ru.practicum.main.request.repository.ParticipationRequestRepository;
-import ru.practicum.stats.StatsClient;
-import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.main.pagination.CursorPage;
+import ru.practicum.main.pagination.PageCursor;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.main.config.Constant.COMPILATION_NOT_FOUND;
-import static ru.practicum.main.config.Constant.DEFAULT_START;
-import static ru.practicum.main.config.Constant.FORMATTER;
 
 @Service
 @RequiredArgsConstructor
@@ -42,8 +39,7 @@ public class CompilationServiceImpl implements CompilationService {
 
     private final CompilationRepository compilationRepository;
     private final EventRepository eventRepository;
-    private final ParticipationRequestRepository requestRepository;
-    private final StatsClient statsClient;
+    private final EventViewsLoader viewsLoader;
 
     @Override
     @Transactional
@@ -59,7 +55,7 @@ public class CompilationServiceImpl implements CompilationService {
 
         Compilation saved = compilationRepository.save(compilation);
 
-        return toDto(saved);
+        return toDto(saved, false);
     }
 
     @Override
@@ -93,118 +89,80 @@ public class CompilationServiceImpl implements CompilationService {
             compilation.setEvents(events);
         }
 
-        return toDto(compilationRepository.save(compilation));
+        return toDto(compilationRepository.save(compilation), false);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<CompilationDto> getCompilations(Boolean pinned, int from, int size) {
+    public CursorPage<CompilationDto> getCompilations(Boolean pinned, int from, int size, String after) {
 
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("id"));
+        PageCursor cursor = PageCursor.decode(after, PageCursor.BY_ID);
+
+        Pageable pageable = PageCursor.pageable(cursor, from, size, Sort.by("id"));
 
         List<Compilation> compilations;
 
         if (pinned == null) {
-            compilations = compilationRepository.findAll(pageable).getContent();
+            compilations = compilationRepository.findByIdGreaterThan(PageCursor.afterId(cursor), pageable);
         } else {
-            compilations = compilationRepository.findByPinned(pinned, pageable).getContent();
+            compilations = compilationRepository.findByPinnedAndIdGreaterThan(pinned, PageCursor.afterId(cursor),
+                    pageable);
         }
 
-        return compilations.stream()
-                .map(this::toDto)
-                .toList();
+        return CursorPage.of(toDtos(compilations, true), size, compilation -> PageCursor.byId(compilation.getId()));
     }
 
     @Override
-    @Transactional(readOnly = true)
     public CompilationDto getCompilation(long compId) {
 
         Compilation compilation = compilationRepository.findById(compId)
                 .orElseThrow(() -> new NotFoundException(String.format(COMPILATION_NOT_FOUND, compId)));
 
-        return toDto(compilation);
+        return toDto(compilation, true);
     }
 
-    private CompilationDto toDto(Compilation compilation) {
-
-        Set<Event> eventSet = compilation.getEvents();
-
-        if (eventSet == null) {
-            eventSet = Set.of();
-        }
-
-        List<Event> events = eventSet.stream().toList();
-
-        Map<Long, Long> confirmed = getConfirmedRequests(events);
-
-        Map<Long, Long> views = getViews(events);
-
-        List<EventShortDto> eventDtos = events.stream()
-                .map(event -> EventMapper.toShortDto(
-                        event,
-                        confirmed.getOrDefault(event.getId(), 0L),
-                        views.getOrDefault(event.getId(), 0L)))
-                .toList();
-
-        return CompilationMapper.toDto(compilation, eventDtos);
+    private CompilationDto toDto(Compilation compilation, boolean liveViews) {
+        return toDtos(List.of(compilation), liveViews).getFirst();
     }
 
-    private Map<Long, Long> getConfirmedRequests(List<Event> events) {
+    /**
+     * Внутри транзакции ({@code liveViews = false}) сервис статистики не опрашивается, чтобы не держать
+     * соединение с базой на время сетевого запроса: берутся просмотры, сохранённые в событиях.
+     */
+    private List<CompilationDto> toDtos(List<Compilation> compilations, boolean liveViews) {
 
-        if (events.isEmpty()) {
-            return Map.of();
+        if (compilations.isEmpty()) {
+            return List.of();
         }
 
-        List<Long> eventIds = events.stream().map(Event::getId).toList();
-
-        List<RequestCount> counts = requestRepository.countByEventIdsAndStatus(eventIds, RequestStatus.CONFIRMED);
-
-        Map<Long, Long> result = new HashMap<>();
+        Map<Long, List<Long>> eventIds = new HashMap<>();
 
-        for (RequestCount count : counts) {
-            result.put(count.getEventId(), count.getTotal());
+        for (CompilationEvent link : compilationRepository.findCompilationEvents(
+                compilations.stream().map(Compilation::getId).toList())) {
+            eventIds.computeIfAbsent(link.getCompilationId(), id -> new ArrayList<>()).add(link.getEventId());
         }
 
-        return result;
-    }
-
-    private Map<Long, Long> getViews(List<Event> events) {
-
-        if (events.isEmpty()) {
-            return Map.of();
-        }
+        Set<Long> allEventIds = new HashSet<>();
 
-        Map<Long, Long> result = new HashMap<>();
-
-        Map<String, Long> uriToEventId = events.stream()
-                .filter(event -> event.getPublishedOn() != null)
-                .collect(Collectors.toMap(event -> "/events/" + event.getId(), Event::getId));
-
-        if (uriToEventId.isEmpty()) {
-            return result;
-        }
+        eventIds.values().forEach(allEventIds::addAll);
 
-        LocalDateTime earliestPublished = events.stream()
-                .map(Event::getPublishedOn)
-                .filter(Objects::nonNull)
-                .min(LocalDateTime::compareTo)
-                .orElse(null);
+        List<EventShortView> events = allEventIds.isEmpty()
+                ? List.of()
+                : eventRepository.findShortViews((root, query, cb) -> root.get("id").in(allEventIds),
+                Pageable.unpaged(Sort.by("id")));
 
-        String start = earliestPublished == null
-                ? DEFAULT_START
-                : earliestPublished.format(FORMATTER);
+        Map<Long, Long> views = liveViews
+                ? viewsLoader.loadShortViews(events)
+                : events.stream().collect(Collectors.toMap(EventShortView::id, EventShortView::views));
 
-        String end = LocalDateTime.now().format(FORMATTER);
+        Map<Long, EventShortDto> eventDtos = EventMapper.toShortDtos(events, views).stream()
+                .collect(Collectors.toMap(EventShortDto::getId, Function.identity()));
 
-        List<ViewStatsDto> stats = statsClient.getStats(start, end, uriToEventId.keySet().stream().toList(), true);
-
-        Map<String, Long> hitsByUri = stats.stream()
-                .collect(Collectors.toMap(ViewStatsDto::getUri, ViewStatsDto::getHits));
-
-        for (Map.Entry<String, Long> entry : uriToEventId.entrySet()) {
-            result.put(entry.getValue(), hitsByUri.getOrDefault(entry.getKey(), 0L));
-        }
-
-        return result;
+        return compilations.stream()
+                .map(compilation -> CompilationMapper.toDto(compilation,
+                        eventIds.getOrDefault(compilation.getId(), List.of()).stream()
+                                .sorted()
+                                .map(eventDtos::get)
+                                .toList()))
+                .toList();
     }
 }
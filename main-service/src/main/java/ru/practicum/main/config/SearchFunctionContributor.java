@@ -0,0 +1,25 @@
+package ru.practicum.main.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+public class SearchFunctionContributor implements FunctionContributor {
+
+    private static final String QUERY = "(to_tsquery('russian', ?2) || to_tsquery('english', ?2))";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        functionContributions.getFunctionRegistry().registerPattern("fts_match",
+                "(?1 @@ " + QUERY + ")",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+
+        functionContributions.getFunctionRegistry().registerPattern("fts_rank",
+                "ts_rank(?1, " + QUERY + ")",
+                types.resolve(StandardBasicTypes.FLOAT));
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.main.event.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -30,8 +31,11 @@ public class AdminEventController {
                                         @RequestParam(required = false) String rangeStart,
                                         @RequestParam(required = false) String rangeEnd,
                                         @RequestParam(defaultValue = "0") int from,
-                                        @RequestParam(defaultValue = "10") int size) {
-        return eventService.getAdminEvents(users, states, categories, rangeStart, rangeEnd, from, size);
+                                        @RequestParam(defaultValue = "10") int size,
+                                        @RequestParam(required = false) String after,
+                                        HttpServletResponse response) {
+        return eventService.getAdminEvents(users, states, categories, rangeStart, rangeEnd, from, size, after)
+                .writeTo(response);
     }
 
     @PatchMapping("/{eventId}")
@@ -1,5 +1,6 @@
 package ru.practicum.main.event.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -33,8 +34,10 @@ public class PrivateEventController {
     @GetMapping
     public List<EventShortDto> getEvents(@PathVariable long userId,
                                          @RequestParam(defaultValue = "0") int from,
-                                         @RequestParam(defaultValue = "10") int size) {
-        return eventService.getUserEvents(userId, from, size);
+                                         @RequestParam(defaultValue = "10") int size,
+                                         @RequestParam(required = false) String after,
+                                         HttpServletResponse response) {
+        return eventService.getUserEvents(userId, from, size, after).writeTo(response);
     }
 
     @PostMapping
@@ -1,6 +1,7 @@
 package ru.practicum.main.event.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.main.event.dto.EventFullDto;
 import ru.practicum.main.event.dto.EventShortDto;
+import ru.practicum.main.event.dto.EventSuggestionDto;
 import ru.practicum.main.event.dto.PublicEventSearchRequest;
 import ru.practicum.main.event.enums.EventSort;
 import ru.practicum.main.event.service.EventService;
@@ -33,11 +35,19 @@ public class PublicEventController {
                                          @RequestParam(required = false) EventSort sort,
                                          @RequestParam(defaultValue = "0") @PositiveOrZero int from,
                                          @RequestParam(defaultValue = "10") @Positive int size,
-                                         HttpServletRequest request) {
+                                         @RequestParam(required = false) String after,
+                                         HttpServletRequest request,
+                                         HttpServletResponse response) {
         PublicEventSearchRequest searchRequest = new PublicEventSearchRequest(text, categories, paid, rangeStart,
-                rangeEnd, onlyAvailable, sort, from, size);
+                rangeEnd, onlyAvailable, sort, from, size, after);
 
-        return eventService.getPublicEvents(searchRequest, request);
+        return eventService.getPublicEvents(searchRequest, request).writeTo(response);
+    }
+
+    @GetMapping("/suggest")
+    public List<EventSuggestionDto> getSuggestions(@RequestParam String prefix,
+                                                   @RequestParam(defaultValue = "10") @Positive int size) {
+        return eventService.getSuggestions(prefix, size);
     }
 
     @GetMapping("/{id}")
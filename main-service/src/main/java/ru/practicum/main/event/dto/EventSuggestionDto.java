@@ -0,0 +1,22 @@
+package ru.practicum.main.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.main.event.enums.SuggestionType;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSuggestionDto {
+
+    private SuggestionType type;
+
+    private Long id;
+
+    private String text;
+}
@@ -29,4 +29,6 @@ public class PublicEventSearchRequest {
     private int from;
 
     private int size;
+
+    private String after;
 }
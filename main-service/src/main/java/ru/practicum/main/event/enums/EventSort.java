@@ -2,5 +2,6 @@ package ru.practicum.main.event.enums;
 
 public enum EventSort {
     EVENT_DATE,
-    VIEWS
+    VIEWS,
+    RELEVANCE
 }
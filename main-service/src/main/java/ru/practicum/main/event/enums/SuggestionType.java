@@ -0,0 +1,6 @@
+package ru.practicum.main.event.enums;
+
+public enum SuggestionType {
+    EVENT,
+    CATEGORY
+}
@@ -1,5 +1,6 @@
 package ru.practicum.main.event.mapper;
 
+import ru.practicum.main.category.dto.CategoryDto;
 import ru.practicum.main.category.mapper.CategoryMapper;
 import ru.practicum.main.category.model.Category;
 import ru.practicum.main.event.dto.EventFullDto;
@@ -7,6 +8,9 @@ import ru.practicum.main.event.dto.EventShortDto;
 import ru.practicum.main.event.dto.NewEventDto;
 import ru.practicum.main.event.enums.EventState;
 import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.model.EventDescription;
+import ru.practicum.main.event.repository.EventShortView;
+import ru.practicum.main.user.dto.UserShortDto;
 import ru.practicum.main.user.mapper.UserMapper;
 import ru.practicum.main.user.model.User;
 
@@ -19,10 +23,10 @@ public final class EventMapper {
     }
 
     public static EventFullDto toFullDto(Event event) {
-        return toFullDto(event, 0, 0);
+        return toFullDto(event, 0);
     }
 
-    public static EventFullDto toFullDto(Event event, long confirmedRequests, long views) {
+    public static EventFullDto toFullDto(Event event, long views) {
         if (event == null) {
             return null;
         }
@@ -30,9 +34,9 @@ public final class EventMapper {
         return EventFullDto.builder()
                 .annotation(event.getAnnotation())
                 .category(CategoryMapper.toDto(event.getCategory()))
-                .confirmedRequests(confirmedRequests)
+                .confirmedRequests(event.getConfirmedRequests())
                 .createdOn(event.getCreatedOn())
-                .description(event.getDescription())
+                .description(event.getDescription().getText())
                 .eventDate(event.getEventDate())
                 .id(event.getId())
                 .initiator(UserMapper.toShortDto(event.getInitiator()))
@@ -47,50 +51,41 @@ public final class EventMapper {
                 .build();
     }
 
-    public static EventFullDto toFullDto(Event event, Map<Long, Long> confirmedMap, Map<Long, Long> viewsMap) {
+    public static EventFullDto toFullDto(Event event, Map<Long, Long> viewsMap) {
         if (event == null) {
             return null;
         }
 
-        return toFullDto(
-                event,
-                confirmedMap.getOrDefault(event.getId(), 0L),
-                viewsMap.getOrDefault(event.getId(), 0L)
-        );
+        return toFullDto(event, viewsMap.getOrDefault(event.getId(), 0L));
     }
 
-    public static List<EventFullDto> toFullDtos(List<Event> events, Map<Long, Long> confirmedMap,
-                                                Map<Long, Long> viewsMap) {
+    public static List<EventFullDto> toFullDtos(List<Event> events, Map<Long, Long> viewsMap) {
         return events.stream()
-                .map(event -> toFullDto(event, confirmedMap, viewsMap))
+                .map(event -> toFullDto(event, viewsMap))
                 .toList();
     }
 
-    public static EventShortDto toShortDto(Event event, long confirmedRequests, long views) {
+    public static EventShortDto toShortDto(EventShortView event, long views) {
         if (event == null) {
             return null;
         }
 
         return EventShortDto.builder()
-                .annotation(event.getAnnotation())
-                .category(CategoryMapper.toDto(event.getCategory()))
-                .confirmedRequests(confirmedRequests)
-                .eventDate(event.getEventDate())
-                .id(event.getId())
-                .initiator(UserMapper.toShortDto(event.getInitiator()))
-                .paid(event.isPaid())
-                .title(event.getTitle())
+                .annotation(event.annotation())
+                .category(new CategoryDto(event.categoryId(), event.categoryName()))
+                .confirmedRequests(event.confirmedRequests())
+                .eventDate(event.eventDate())
+                .id(event.id())
+                .initiator(new UserShortDto(event.initiatorId(), event.initiatorName()))
+                .paid(event.paid())
+                .title(event.title())
                 .views(views)
                 .build();
     }
 
-    public static List<EventShortDto> toShortDtos(List<Event> events, Map<Long, Long> confirmedMap,
-                                                  Map<Long, Long> viewsMap) {
+    public static List<EventShortDto> toShortDtos(List<EventShortView> events, Map<Long, Long> viewsMap) {
         return events.stream()
-                .map(event -> toShortDto(
-                        event,
-                        confirmedMap.getOrDefault(event.getId(), 0L),
-                        viewsMap.getOrDefault(event.getId(), 0L)))
+                .map(event -> toShortDto(event, viewsMap.getOrDefault(event.id(), 0L)))
                 .toList();
     }
 
@@ -99,10 +94,9 @@ public final class EventMapper {
             return null;
         }
 
-        return Event.builder()
+        Event event = Event.builder()
                 .annotation(dto.getAnnotation())
                 .category(category)
-                .description(dto.getDescription())
                 .eventDate(dto.getEventDate())
                 .createdOn(LocalDateTime.now())
                 .initiator(user)
@@ -113,5 +107,12 @@ public final class EventMapper {
                 .state(EventState.PENDING)
                 .title(dto.getTitle())
                 .build();
+
+        event.setDescription(EventDescription.builder()
+                .event(event)
+                .text(dto.getDescription())
+                .build());
+
+        return event;
     }
 }
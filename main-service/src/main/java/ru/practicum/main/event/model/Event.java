@@ -1,21 +1,30 @@
 package ru.practicum.main.event.model;
 
+import jakarta.persistence.Basic;
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.LazyGroup;
 import ru.practicum.main.category.model.Category;
 import ru.practicum.main.event.enums.EventState;
 import ru.practicum.main.user.model.User;
@@ -28,9 +37,16 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "events")
+@Table(name = "events", indexes = @Index(name = "idx_events_views", columnList = "views DESC, id"))
+@NamedEntityGraph(name = Event.WITH_DETAILS, attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("initiator"),
+        @NamedAttributeNode("description")
+})
 public class Event {
 
+    public static final String WITH_DETAILS = "Event.withDetails";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -38,12 +54,13 @@ public class Event {
     @Column(nullable = false, length = 2000)
     private String annotation;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "category_id")
     private Category category;
 
-    @Column(nullable = false, length = 7000)
-    private String description;
+    @LazyGroup("description")
+    @OneToOne(mappedBy = "event", fetch = FetchType.LAZY, cascade = CascadeType.ALL, optional = false)
+    private EventDescription description;
 
     @Column(name = "event_date", nullable = false)
     private LocalDateTime eventDate;
@@ -54,7 +71,7 @@ public class Event {
     @Column(name = "published_on")
     private LocalDateTime publishedOn;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "initiator_id")
     private User initiator;
 
@@ -76,4 +93,16 @@ public class Event {
 
     @Column(nullable = false, length = 120)
     private String title;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long views;
+
+    @ColumnDefault("0")
+    @Column(name = "confirmed_requests", nullable = false, insertable = false, updatable = false)
+    private long confirmedRequests;
+
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "search_vector", columnDefinition = "tsvector", insertable = false, updatable = false)
+    private String searchVector;
 }
@@ -0,0 +1,14 @@
+package ru.practicum.main.event.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.main.event.model.Event;
+
+import java.util.List;
+
+public interface EventQueryRepository {
+
+    List<Event> findEvents(Specification<Event> specification, Pageable pageable);
+
+    List<EventShortView> findShortViews(Specification<Event> specification, Pageable pageable);
+}
@@ -0,0 +1,101 @@
+package ru.practicum.main.event.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.main.category.model.Category;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.user.model.User;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class EventQueryRepositoryImpl implements EventQueryRepository {
+
+    private static final String FETCH_GRAPH_HINT = "jakarta.persistence.fetchgraph";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Event> findEvents(Specification<Event> specification, Pageable pageable) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Event> query = cb.createQuery(Event.class);
+
+        Root<Event> root = query.from(Event.class);
+
+        query.select(root);
+
+        TypedQuery<Event> typedQuery = createQuery(query, root, specification, pageable);
+
+        typedQuery.setHint(FETCH_GRAPH_HINT, entityManager.getEntityGraph(Event.WITH_DETAILS));
+
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public List<EventShortView> findShortViews(Specification<Event> specification, Pageable pageable) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<EventShortView> query = cb.createQuery(EventShortView.class);
+
+        Root<Event> root = query.from(Event.class);
+
+        Join<Event, Category> category = root.join("category");
+
+        Join<Event, User> initiator = root.join("initiator");
+
+        query.select(cb.construct(EventShortView.class,
+                root.get("id"),
+                root.get("annotation"),
+                category.get("id"),
+                category.get("name"),
+                root.get("confirmedRequests"),
+                root.get("eventDate"),
+                initiator.get("id"),
+                initiator.get("name"),
+                root.get("paid"),
+                root.get("title"),
+                root.get("views"),
+                root.get("publishedOn")));
+
+        return createQuery(query, root, specification, pageable).getResultList();
+    }
+
+    private <T> TypedQuery<T> createQuery(CriteriaQuery<T> query, Root<Event> root,
+                                          Specification<Event> specification, Pageable pageable) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        return typedQuery;
+    }
+}
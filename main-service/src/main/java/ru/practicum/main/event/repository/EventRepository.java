@@ -1,14 +1,85 @@
 package ru.practicum.main.event.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.main.event.enums.EventState;
 import ru.practicum.main.event.model.Event;
 
-public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
-    Page<Event> findByInitiatorId(Long userId, Pageable pageable);
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event>,
+        EventQueryRepository {
+
+    @Override
+    @EntityGraph(Event.WITH_DETAILS)
+    Optional<Event> findById(Long id);
 
     boolean existsByCategoryId(Long categoryId);
+
+    @Modifying
+    @Query("UPDATE Event e " +
+            "SET e.confirmedRequests = e.confirmedRequests + 1 " +
+            "WHERE e.id = :eventId " +
+            "  AND (e.participantLimit = 0 OR e.confirmedRequests < e.participantLimit)")
+    int incrementConfirmedRequests(@Param("eventId") long eventId);
+
+    @Modifying
+    @Query("UPDATE Event e " +
+            "SET e.confirmedRequests = e.confirmedRequests - 1 " +
+            "WHERE e.id = :eventId AND e.confirmedRequests > 0")
+    int decrementConfirmedRequests(@Param("eventId") long eventId);
+
+    @Query("SELECT CASE WHEN COUNT(e) > 0 THEN true ELSE false END " +
+            "FROM Event e " +
+            "WHERE e.id = :eventId " +
+            "  AND e.participantLimit > 0 AND e.confirmedRequests >= e.participantLimit")
+    boolean isParticipantLimitReached(@Param("eventId") long eventId);
+
+    @Query("SELECT e.id AS id, e.publishedOn AS publishedOn " +
+            "FROM Event e " +
+            "WHERE e.state = :state AND e.id > :afterId " +
+            "ORDER BY e.id")
+    List<EventPublication> findPublications(@Param("state") EventState state,
+                                            @Param("afterId") long afterId,
+                                            Limit limit);
+
+    @Query("SELECT e.id AS id, e.title AS title, e.views AS views, " +
+            "       c.id AS categoryId, c.name AS categoryName " +
+            "FROM Event e JOIN e.category c " +
+            "WHERE e.state = :state")
+    List<EventSuggestionSource> findSuggestionSources(@Param("state") EventState state);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE events e " +
+            "SET views = v.views " +
+            "FROM unnest(CAST(:ids AS bigint[]), CAST(:views AS bigint[])) AS v(id, views) " +
+            "WHERE e.id = v.id AND e.views <> v.views", nativeQuery = true)
+    int updateViews(@Param("ids") Long[] ids, @Param("views") Long[] views);
+
+    interface EventPublication {
+        Long getId();
+
+        LocalDateTime getPublishedOn();
+    }
+
+    interface EventSuggestionSource {
+        Long getId();
+
+        String getTitle();
+
+        Long getViews();
+
+        Long getCategoryId();
+
+        String getCategoryName();
+    }
 }
@@ -0,0 +1,17 @@
+package ru.practicum.main.event.repository;
+
+import java.time.LocalDateTime;
+
+public record EventShortView(Long id,
+                             String annotation,
+                             Long categoryId,
+                             String categoryName,
+                             long confirmedRequests,
+                             LocalDateTime eventDate,
+                             Long initiatorId,
+                             String initiatorName,
+                             boolean paid,
+                             String title,
+                             long views,
+                             LocalDateTime publishedOn) {
+}
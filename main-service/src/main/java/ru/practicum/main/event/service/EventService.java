@@ -3,11 +3,13 @@ package ru.practicum.main.event.service;
 import jakarta.servlet.http.HttpServletRequest;
 import ru.practicum.main.event.dto.EventFullDto;
 import ru.practicum.main.event.dto.EventShortDto;
+import ru.practicum.main.event.dto.EventSuggestionDto;
 import ru.practicum.main.event.dto.NewEventDto;
 import ru.practicum.main.event.dto.PublicEventSearchRequest;
 import ru.practicum.main.event.enums.EventState;
 import ru.practicum.main.event.model.UpdateEventAdminRequest;
 import ru.practicum.main.event.model.UpdateEventUserRequest;
+import ru.practicum.main.pagination.CursorPage;
 import ru.practicum.main.request.dto.ParticipationRequestDto;
 import ru.practicum.main.request.model.EventRequestStatusUpdateRequest;
 import ru.practicum.main.request.model.EventRequestStatusUpdateResult;
@@ -18,7 +20,7 @@ public interface EventService {
 
     EventFullDto addEvent(long userId, NewEventDto dto);
 
-    List<EventShortDto> getUserEvents(long userId, int from, int size);
+    CursorPage<EventShortDto> getUserEvents(long userId, int from, int size, String after);
 
     EventFullDto getUserEvent(long userId, long eventId);
 
@@ -29,12 +31,14 @@ public interface EventService {
     EventRequestStatusUpdateResult updateRequestsStatus(long userId, long eventId,
                                                         EventRequestStatusUpdateRequest request);
 
-    List<EventFullDto> getAdminEvents(List<Long> users, List<EventState> states, List<Long> categories,
-                                      String rangeStart, String rangeEnd, int from, int size);
+    CursorPage<EventFullDto> getAdminEvents(List<Long> users, List<EventState> states, List<Long> categories,
+                                            String rangeStart, String rangeEnd, int from, int size, String after);
 
     EventFullDto updateAdminEvent(long eventId, UpdateEventAdminRequest request);
 
-    List<EventShortDto> getPublicEvents(PublicEventSearchRequest request, HttpServletRequest servletRequest);
+    CursorPage<EventShortDto> getPublicEvents(PublicEventSearchRequest request, HttpServletRequest servletRequest);
 
     EventFullDto getPublicEvent(long eventId, HttpServletRequest request);
+
+    List<EventSuggestionDto> getSuggestions(String prefix, int size);
 }
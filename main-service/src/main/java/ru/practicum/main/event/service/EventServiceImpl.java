@@ -3,7 +3,6 @@ package ru.practicum.main.event.service;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
@@ -13,6 +12,7 @@ import ru.practicum.main.category.model.Category;
 import ru.practicum.main.category.repository.CategoryRepository;
 import ru.practicum.main.event.dto.EventFullDto;
 import ru.practicum.main.event.dto.EventShortDto;
+import ru.practicum.main.event.dto.EventSuggestionDto;
 import ru.practicum.main.event.dto.NewEventDto;
 import ru.practicum.main.event.dto.PublicEventSearchRequest;
 import ru.practicum.main.event.enums.EventAdminStateAction;
@@ -24,13 +24,15 @@ import ru.practicum.main.event.model.Event;
 import ru.practicum.main.event.model.UpdateEventAdminRequest;
 import ru.practicum.main.event.model.UpdateEventUserRequest;
 import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.event.repository.EventShortView;
 import ru.practicum.main.event.repository.UpdateEventRequest;
 import ru.practicum.main.exception.BadRequestException;
 import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.ForbiddenException;
 import ru.practicum.main.exception.NotFoundException;
+import ru.practicum.main.pagination.CursorPage;
+import ru.practicum.main.pagination.PageCursor;
 import ru.practicum.main.request.dto.ParticipationRequestDto;
-import ru.practicum.main.request.enums.RequestCount;
 import ru.practicum.main.request.enums.RequestStatus;
 import ru.practicum.main.request.enums.RequestUpdateStatus;
 import ru.practicum.main.request.mapper.ParticipationRequestMapper;
@@ -41,18 +43,15 @@ import ru.practicum.main.request.repository.ParticipationRequestRepository;
 import ru.practicum.main.user.model.User;
 import ru.practicum.main.user.repository.UserRepository;
 import ru.practicum.stats.StatsClient;
-import ru.practicum.stats.dto.ViewStatsDto;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import static ru.practicum.main.config.Constant.CATEGORY_NOT_FOUND;
-import static ru.practicum.main.config.Constant.DEFAULT_START;
 import static ru.practicum.main.config.Constant.EVENT_NOT_FOUND;
 import static ru.practicum.main.config.Constant.FORMATTER;
 import static ru.practicum.main.config.Constant.NOT_INITIATOR;
@@ -63,11 +62,15 @@ import static ru.practicum.main.config.Constant.USER_NOT_FOUND;
 public class EventServiceImpl implements EventService {
 
     private static final String EVENT_DATE = "eventDate";
+    private static final String VIEWS = "views";
+    private static final String SEARCH_VECTOR = "searchVector";
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final ParticipationRequestRepository requestRepository;
     private final StatsClient statsClient;
+    private final EventViewsLoader viewsLoader;
+    private final EventSuggestionIndex suggestionIndex;
 
     @Override
     @Transactional
@@ -91,20 +94,25 @@ public class EventServiceImpl implements EventService {
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<EventShortDto> getUserEvents(long userId, int from, int size) {
+    public CursorPage<EventShortDto> getUserEvents(long userId, int from, int size, String after) {
 
         ensureUserExists(userId);
 
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("id"));
+        PageCursor cursor = PageCursor.decode(after, PageCursor.BY_ID);
+
+        Specification<Event> specification = Specification.<Event>where((root, query, cb) ->
+                        cb.equal(root.get("initiator").get("id"), userId))
+                .and(seekAfter(cursor));
+
+        Pageable pageable = PageCursor.pageable(cursor, from, size, Sort.by("id"));
 
-        List<Event> events = eventRepository.findByInitiatorId(userId, pageable).getContent();
+        List<EventShortView> events = eventRepository.findShortViews(specification, pageable);
 
-        return EventMapper.toShortDtos(events, getConfirmedRequests(events), getViews(events));
+        return new CursorPage<>(EventMapper.toShortDtos(events, viewsLoader.loadShortViews(events)),
+                PageCursor.next(events, size, event -> PageCursor.byId(event.id())));
     }
 
     @Override
-    @Transactional(readOnly = true)
     public EventFullDto getUserEvent(long userId, long eventId) {
 
         Event event = eventRepository.findById(eventId)
@@ -114,7 +122,7 @@ public class EventServiceImpl implements EventService {
             throw new ForbiddenException(NOT_INITIATOR);
         }
 
-        return EventMapper.toFullDto(event, getConfirmedRequests(List.of(event)), getViews(List.of(event)));
+        return EventMapper.toFullDto(event, viewsLoader.loadEvents(List.of(event)));
     }
 
     @Override
@@ -140,7 +148,7 @@ public class EventServiceImpl implements EventService {
 
         Event saved = eventRepository.save(event);
 
-        return EventMapper.toFullDto(saved, getConfirmedRequests(List.of(saved)), getViews(List.of(saved)));
+        return EventMapper.toFullDto(saved, saved.getViews());
     }
 
     @Override
@@ -168,13 +176,11 @@ public class EventServiceImpl implements EventService {
 
         List<Long> requestIds = request.getRequestIds();
 
-        List<ParticipationRequest> requests = requestRepository.findAllById(requestIds);
+        List<ParticipationRequest> requests = requestRepository.findLockedByIdIn(requestIds);
 
         validatePendingRequests(eventId, requests);
 
-        long confirmedCount = requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED);
-
-        RequestUpdateOutcome outcome = processStatusUpdate(event, requests, request.getStatus(), confirmedCount);
+        RequestUpdateOutcome outcome = processStatusUpdate(event, requests, request.getStatus());
 
         rejectRemainingPendingIfLimitReached(event, requestIds, outcome);
 
@@ -184,9 +190,9 @@ public class EventServiceImpl implements EventService {
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<EventFullDto> getAdminEvents(List<Long> users, List<EventState> states, List<Long> categories,
-                                             String rangeStart, String rangeEnd, int from, int size) {
+    public CursorPage<EventFullDto> getAdminEvents(List<Long> users, List<EventState> states,
+                                                   List<Long> categories, String rangeStart, String rangeEnd,
+                                                   int from, int size, String after) {
 
         LocalDateTime start = parseDate(rangeStart);
 
@@ -196,13 +202,17 @@ public class EventServiceImpl implements EventService {
             throw new BadRequestException("Диапазон дат указан неверно.");
         }
 
-        Specification<Event> specification = buildAdminSpecification(users, states, categories, start, end);
+        PageCursor cursor = PageCursor.decode(after, PageCursor.BY_ID);
+
+        Specification<Event> specification = buildAdminSpecification(users, states, categories, start, end)
+                .and(seekAfter(cursor));
 
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("id"));
+        Pageable pageable = PageCursor.pageable(cursor, from, size, Sort.by("id"));
 
-        List<Event> events = eventRepository.findAll(specification, pageable).getContent();
+        List<Event> events = eventRepository.findEvents(specification, pageable);
 
-        return EventMapper.toFullDtos(events, getConfirmedRequests(events), getViews(events));
+        return new CursorPage<>(EventMapper.toFullDtos(events, viewsLoader.loadEvents(events)),
+                PageCursor.next(events, size, event -> PageCursor.byId(event.getId())));
     }
 
     @Override
@@ -219,13 +229,14 @@ public class EventServiceImpl implements EventService {
 
         Event saved = eventRepository.save(event);
 
-        return EventMapper.toFullDto(saved, getConfirmedRequests(List.of(saved)), getViews(List.of(saved)));
+        suggestionIndex.update(saved);
+
+        return EventMapper.toFullDto(saved, saved.getViews());
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<EventShortDto> getPublicEvents(PublicEventSearchRequest request,
-                                               HttpServletRequest servletRequest) {
+    public CursorPage<EventShortDto> getPublicEvents(PublicEventSearchRequest request,
+                                                     HttpServletRequest servletRequest) {
 
         LocalDateTime start = parseDate(request.getRangeStart());
 
@@ -239,45 +250,57 @@ public class EventServiceImpl implements EventService {
             start = LocalDateTime.now();
         }
 
-        Specification<Event> specification = buildPublicSpecification(request.getText(), request.getCategories(),
-                request.getPaid(), start, end);
+        String searchQuery = toSearchQuery(request.getText());
 
-        List<Event> events;
+        Specification<Event> specification = buildPublicSpecification(searchQuery, request.getCategories(),
+                request.getPaid(), start, end, Boolean.TRUE.equals(request.getOnlyAvailable()));
 
-        if (request.getSort() == EventSort.VIEWS) {
-            events = eventRepository.findAll(specification);
+        Sort sort;
+
+        String cursorSort;
+
+        if (request.getSort() == EventSort.RELEVANCE && searchQuery != null) {
+            specification = specification.and(orderByRelevance(searchQuery));
+            sort = Sort.unsorted();
+            cursorSort = null;
+        } else if (request.getSort() == EventSort.VIEWS) {
+            sort = Sort.by(Sort.Order.desc(VIEWS), Sort.Order.asc("id"));
+            cursorSort = VIEWS;
         } else {
-            Pageable pageable = PageRequest.of(request.getFrom() / request.getSize(), request.getSize(),
-                    Sort.by(EVENT_DATE));
-            events = eventRepository.findAll(specification, pageable).getContent();
+            sort = Sort.by(EVENT_DATE, "id");
+            cursorSort = EVENT_DATE;
         }
 
-        if (Boolean.TRUE.equals(request.getOnlyAvailable())) {
-            Map<Long, Long> confirmedMap = getConfirmedRequests(events);
-            events = events.stream()
-                    .filter(event -> event.getParticipantLimit() == 0
-                            || confirmedMap.getOrDefault(event.getId(), 0L) < event.getParticipantLimit())
-                    .toList();
-        }
+        PageCursor cursor = null;
 
-        List<EventShortDto> result = EventMapper.toShortDtos(events, getConfirmedRequests(events), getViews(events));
+        if (request.getAfter() != null && !request.getAfter().isBlank()) {
+            if (cursorSort == null) {
+                throw new BadRequestException("Курсор не поддерживается для сортировки по релевантности.");
+            }
 
-        if (Boolean.TRUE.equals(request.getOnlyAvailable())) {
-            result = result.stream()
-                    .sorted(Comparator.comparingLong(EventShortDto::getViews).reversed())
-                    .toList();
-            int startIndex = Math.min(request.getFrom(), result.size());
-            int endIndex = Math.min(request.getFrom() + request.getSize(), result.size());
-            result = result.subList(startIndex, endIndex);
+            cursor = PageCursor.decode(request.getAfter(), cursorSort);
+            specification = specification.and(seekAfter(cursor));
         }
 
+        Pageable pageable = PageCursor.pageable(cursor, request.getFrom(), request.getSize(), sort);
+
         statsClient.addHit(servletRequest);
 
-        return result;
+        List<EventShortView> events = eventRepository.findShortViews(specification, pageable);
+
+        Map<Long, Long> views = VIEWS.equals(cursorSort)
+                ? viewsLoader.storedShortViews(events)
+                : viewsLoader.loadShortViews(events);
+
+        List<EventShortDto> result = EventMapper.toShortDtos(events, views);
+
+        String nextCursor = cursorSort == null ? null : PageCursor.next(events, request.getSize(), event ->
+                PageCursor.of(cursorSort, VIEWS.equals(cursorSort) ? event.views() : event.eventDate(), event.id()));
+
+        return new CursorPage<>(result, nextCursor);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public EventFullDto getPublicEvent(long eventId, HttpServletRequest request) {
 
         Event event = eventRepository.findById(eventId)
@@ -289,7 +312,12 @@ public class EventServiceImpl implements EventService {
 
         statsClient.addHit(request);
 
-        return EventMapper.toFullDto(event, getConfirmedRequests(List.of(event)), getViews(List.of(event)));
+        return EventMapper.toFullDto(event, viewsLoader.loadEvents(List.of(event)));
+    }
+
+    @Override
+    public List<EventSuggestionDto> getSuggestions(String prefix, int size) {
+        return suggestionIndex.suggest(prefix, size);
     }
 
     private void applyUserUpdate(Event event, UpdateEventUserRequest request) {
@@ -315,7 +343,7 @@ public class EventServiceImpl implements EventService {
         }
 
         if (request.getDescription() != null) {
-            event.setDescription(request.getDescription());
+            event.getDescription().setText(request.getDescription());
         }
 
         if (request.getEventDate() != null) {
@@ -377,55 +405,6 @@ public class EventServiceImpl implements EventService {
         }
     }
 
-    private Map<Long, Long> getConfirmedRequests(List<Event> events) {
-
-        if (events.isEmpty()) {
-            return Map.of();
-        }
-
-        List<Long> eventIds = events.stream()
-                .map(Event::getId)
-                .toList();
-
-        List<RequestCount> counts = requestRepository.countByEventIdsAndStatus(eventIds, RequestStatus.CONFIRMED);
-
-        Map<Long, Long> result = new HashMap<>();
-
-        for (RequestCount count : counts) {
-            result.put(count.getEventId(), count.getTotal());
-        }
-
-        return result;
-    }
-
-    private Map<Long, Long> getViews(List<Event> events) {
-
-        if (events.isEmpty()) {
-            return Map.of();
-        }
-
-        String end = LocalDateTime.now().format(FORMATTER);
-
-        Map<Long, Long> result = new HashMap<>();
-
-        for (Event event : events) {
-            String start = event.getPublishedOn() == null
-                    ? DEFAULT_START
-                    : event.getPublishedOn().format(FORMATTER);
-
-            String uri = "/events/" + event.getId();
-
-            List<ViewStatsDto> stats = statsClient.getStats(start, end, List.of(uri), true);
-
-            long hits = stats.stream()
-                    .collect(Collectors.toMap(ViewStatsDto::getUri, ViewStatsDto::getHits))
-                    .getOrDefault(uri, 0L);
-            result.put(event.getId(), hits);
-        }
-
-        return result;
-    }
-
     private Specification<Event> buildAdminSpecification(List<Long> users, List<EventState> states,
                                                          List<Long> categories, LocalDateTime start,
                                                          LocalDateTime end) {
@@ -460,18 +439,17 @@ public class EventServiceImpl implements EventService {
         return specification;
     }
 
-    private Specification<Event> buildPublicSpecification(String text, List<Long> categories, Boolean paid,
-                                                          LocalDateTime start, LocalDateTime end) {
+    private Specification<Event> buildPublicSpecification(String searchQuery, List<Long> categories, Boolean paid,
+                                                          LocalDateTime start, LocalDateTime end,
+                                                          boolean onlyAvailable) {
 
         Specification<Event> specification = Specification
                 .where((root, query, cb) -> cb.equal(root.get("state"),
                         EventState.PUBLISHED));
 
-        if (text != null && !text.isBlank()) {
-            String like = "%" + text.toLowerCase() + "%";
-            specification = specification.and((root, query, cb) -> cb.or(
-                    cb.like(cb.lower(root.get("annotation")), like),
-                    cb.like(cb.lower(root.get("description")), like)));
+        if (searchQuery != null) {
+            specification = specification.and((root, query, cb) -> cb.isTrue(
+                    cb.function("fts_match", Boolean.class, root.get(SEARCH_VECTOR), cb.literal(searchQuery))));
         }
 
         if (categories != null && !categories.isEmpty()) {
@@ -494,9 +472,65 @@ public class EventServiceImpl implements EventService {
                     cb.lessThanOrEqualTo(root.get(EVENT_DATE), end));
         }
 
+        if (onlyAvailable) {
+            specification = specification.and((root, query, cb) -> cb.or(
+                    cb.equal(root.get("participantLimit"), 0),
+                    cb.lessThan(root.get("confirmedRequests"), root.get("participantLimit"))));
+        }
+
         return specification;
     }
 
+    private Specification<Event> seekAfter(PageCursor cursor) {
+
+        if (cursor == null) {
+            return null;
+        }
+
+        long id = cursor.id();
+
+        return switch (cursor.sort()) {
+            case EVENT_DATE -> {
+                LocalDateTime eventDate = cursor.dateValue();
+                yield (root, query, cb) -> cb.or(
+                        cb.greaterThan(root.get(EVENT_DATE), eventDate),
+                        cb.and(cb.equal(root.get(EVENT_DATE), eventDate), cb.greaterThan(root.get("id"), id)));
+            }
+            case VIEWS -> {
+                long views = cursor.longValue();
+                yield (root, query, cb) -> cb.or(
+                        cb.lessThan(root.get(VIEWS), views),
+                        cb.and(cb.equal(root.get(VIEWS), views), cb.greaterThan(root.get("id"), id)));
+            }
+            default -> (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+        };
+    }
+
+    private Specification<Event> orderByRelevance(String searchQuery) {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(
+                        cb.desc(cb.function("fts_rank", Float.class, root.get(SEARCH_VECTOR), cb.literal(searchQuery))),
+                        cb.asc(root.get("id")));
+            }
+            return null;
+        };
+    }
+
+    private String toSearchQuery(String text) {
+
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+
+        String query = Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+
+        return query.isEmpty() ? null : query;
+    }
+
     private LocalDateTime parseDate(String date) {
 
         if (date == null || date.isBlank()) {
@@ -542,7 +576,7 @@ public class EventServiceImpl implements EventService {
     }
 
     private RequestUpdateOutcome processStatusUpdate(Event event, List<ParticipationRequest> requests,
-                                                     RequestUpdateStatus updateStatus, long confirmedCount) {
+                                                     RequestUpdateStatus updateStatus) {
 
         List<ParticipationRequestDto> confirmed = new ArrayList<>();
 
@@ -550,16 +584,13 @@ public class EventServiceImpl implements EventService {
 
         List<ParticipationRequest> toSave = new ArrayList<>(requests);
 
-        long currentConfirmed = confirmedCount;
-
         for (ParticipationRequest participationRequest : requests) {
             if (updateStatus == RequestUpdateStatus.CONFIRMED) {
-                if (isLimitReached(event, currentConfirmed)) {
+                if (eventRepository.incrementConfirmedRequests(event.getId()) == 0) {
                     participationRequest.setStatus(RequestStatus.REJECTED);
                     rejected.add(ParticipationRequestMapper.toDto(participationRequest));
                 } else {
                     participationRequest.setStatus(RequestStatus.CONFIRMED);
-                    currentConfirmed++;
                     confirmed.add(ParticipationRequestMapper.toDto(participationRequest));
                 }
             } else {
@@ -568,13 +599,13 @@ public class EventServiceImpl implements EventService {
             }
         }
 
-        return new RequestUpdateOutcome(toSave, confirmed, rejected, currentConfirmed);
+        return new RequestUpdateOutcome(toSave, confirmed, rejected);
     }
 
     private void rejectRemainingPendingIfLimitReached(Event event, List<Long> requestIds,
                                                       RequestUpdateOutcome outcome) {
 
-        if (!isLimitReached(event, outcome.getConfirmedCount())) {
+        if (!eventRepository.isParticipantLimitReached(event.getId())) {
             return;
         }
 
@@ -592,25 +623,18 @@ public class EventServiceImpl implements EventService {
         outcome.getToSave().addAll(pending);
     }
 
-    private boolean isLimitReached(Event event, long confirmedCount) {
-        return event.getParticipantLimit() > 0 && confirmedCount >= event.getParticipantLimit();
-    }
-
     @Getter
     private static class RequestUpdateOutcome {
         private final List<ParticipationRequest> toSave;
         private final List<ParticipationRequestDto> confirmed;
         private final List<ParticipationRequestDto> rejected;
-        private final long confirmedCount;
 
         private RequestUpdateOutcome(List<ParticipationRequest> toSave,
                                      List<ParticipationRequestDto> confirmed,
-                                     List<ParticipationRequestDto> rejected,
-                                     long confirmedCount) {
+                                     List<ParticipationRequestDto> rejected) {
             this.toSave = toSave;
             this.confirmed = confirmed;
             this.rejected = rejected;
-            this.confirmedCount = confirmedCount;
         }
     }
 }
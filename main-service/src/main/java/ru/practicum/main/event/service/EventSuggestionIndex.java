@@ -0,0 +1,352 @@
+package ru.practicum.main.event.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.main.event.dto.EventSuggestionDto;
+import ru.practicum.main.event.enums.EventState;
+import ru.practicum.main.event.enums.SuggestionType;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.event.repository.EventRepository.EventSuggestionSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Индекс подсказок для поиска по мере ввода: отсортированные по префиксу названия опубликованных событий
+ * и категорий. Каждое слово названия тоже является ключом, поэтому «jaz» находит «Summer jazz night».
+ * Категория подсказывается, пока в ней есть опубликованные события; её популярность — сумма их просмотров.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventSuggestionIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final char KEY_DELIMITER = '\u0000';
+    private static final int SHORT_PREFIX_LENGTH = 3;
+    private static final Comparator<Suggestion> RANKING = Comparator.comparingLong(Suggestion::popularity).reversed()
+            .thenComparing(Suggestion::text)
+            .thenComparing(Suggestion::type)
+            .thenComparingLong(Suggestion::id);
+
+    private final EventRepository eventRepository;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Index index = new Index();
+
+    @Value("${events.suggest.max-size:50}")
+    private int maxSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${events.suggest.rebuild-interval-ms:300000}",
+            initialDelayString = "${events.suggest.rebuild-interval-ms:300000}")
+    public void rebuild() {
+
+        lock.lock();
+
+        try {
+            List<EventSuggestionSource> sources = eventRepository.findSuggestionSources(EventState.PUBLISHED);
+
+            Index rebuilt = new Index();
+
+            for (EventSuggestionSource source : sources) {
+                rebuilt.addEvent(source.getId(), source.getTitle(), source.getViews(), source.getCategoryId(),
+                        source.getCategoryName());
+            }
+
+            for (Long categoryId : List.copyOf(rebuilt.categoryNames.keySet())) {
+                rebuilt.refreshCategory(categoryId);
+            }
+
+            index = rebuilt;
+
+            log.debug("Индекс подсказок перестроен: {} событий, {} категорий",
+                    rebuilt.events.size(), rebuilt.categoryNames.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Короткому префиксу соответствует большая часть индекса, поэтому для префиксов до
+     * {@value #SHORT_PREFIX_LENGTH} символов подсказки заранее разложены по наборам, упорядоченным по
+     * популярности, и ответ — первые {@code size} элементов набора. Для длинных префиксов лучшие подсказки
+     * отбираются кучей ограниченного размера за один проход по совпадениям. Подсказка с несколькими
+     * подходящими словами встречается в проходе несколько раз и попадает в кучу один раз.
+     */
+    public List<EventSuggestionDto> suggest(String prefix, int size) {
+
+        String normalized = normalizePrefix(prefix);
+
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        int limit = Math.min(size, maxSize);
+
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        Index current = index;
+
+        if (normalized.length() <= SHORT_PREFIX_LENGTH) {
+            NavigableSet<Suggestion> popular = current.shortPrefixes.get(normalized);
+
+            if (popular == null) {
+                return List.of();
+            }
+
+            return popular.stream()
+                    .limit(limit)
+                    .map(EventSuggestionIndex::toDto)
+                    .toList();
+        }
+
+        PriorityQueue<Suggestion> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        Set<Suggestion> selected = new HashSet<>();
+
+        for (Suggestion suggestion : current.keys
+                .subMap(normalized, true, normalized + Character.MAX_VALUE, false)
+                .values()) {
+
+            if (top.size() == limit && RANKING.compare(suggestion, top.peek()) >= 0) {
+                continue;
+            }
+
+            if (!selected.add(suggestion)) {
+                continue;
+            }
+
+            top.add(suggestion);
+
+            if (top.size() > limit) {
+                selected.remove(top.poll());
+            }
+        }
+
+        List<Suggestion> result = new ArrayList<>(top);
+
+        result.sort(RANKING);
+
+        return result.stream()
+                .map(EventSuggestionIndex::toDto)
+                .toList();
+    }
+
+    public void update(Event event) {
+
+        long eventId = event.getId();
+        boolean published = event.getState() == EventState.PUBLISHED;
+        String title = event.getTitle();
+        long views = event.getViews();
+        long categoryId = event.getCategory().getId();
+        String categoryName = event.getCategory().getName();
+
+        Runnable apply = () -> apply(eventId, published, title, views, categoryId, categoryName);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    private void apply(long eventId, boolean published, String title, long views,
+                       long categoryId, String categoryName) {
+
+        lock.lock();
+
+        try {
+            Index current = index;
+
+            Long previousCategoryId = current.removeEvent(eventId);
+
+            if (published) {
+                current.addEvent(eventId, title, views, categoryId, categoryName);
+                current.refreshCategory(categoryId);
+            }
+
+            if (previousCategoryId != null && (!published || previousCategoryId != categoryId)) {
+                current.refreshCategory(previousCategoryId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static EventSuggestionDto toDto(Suggestion suggestion) {
+        return new EventSuggestionDto(suggestion.type(), suggestion.id(), suggestion.text());
+    }
+
+    private static String normalize(String text) {
+        return SEPARATORS.matcher(text.toLowerCase(Locale.ROOT).replace('ё', 'е')).replaceAll(" ").trim();
+    }
+
+    private static String normalizePrefix(String prefix) {
+
+        if (prefix == null) {
+            return "";
+        }
+
+        return SEPARATORS.matcher(prefix.toLowerCase(Locale.ROOT).replace('ё', 'е')).replaceAll(" ").stripLeading();
+    }
+
+    /**
+     * Читатели обращаются только к {@link #keys} и {@link #shortPrefixes}, остальные поля меняются и читаются
+     * под блокировкой индекса.
+     */
+    private static final class Index {
+
+        private final NavigableMap<String, Suggestion> keys = new ConcurrentSkipListMap<>();
+        private final Map<String, NavigableSet<Suggestion>> shortPrefixes = new ConcurrentHashMap<>();
+        private final Map<Long, IndexedEvent> events = new HashMap<>();
+        private final Map<Long, String> categoryNames = new HashMap<>();
+        private final Map<Long, Long> categoryPopularity = new HashMap<>();
+        private final Map<Long, Integer> categoryEvents = new HashMap<>();
+        private final Map<Long, Suggestion> categories = new HashMap<>();
+
+        private void addEvent(long id, String title, long views, long categoryId, String categoryName) {
+            Suggestion suggestion = new Suggestion(SuggestionType.EVENT, id, title, views);
+            events.put(id, new IndexedEvent(suggestion, categoryId));
+            categoryNames.put(categoryId, categoryName);
+            categoryPopularity.merge(categoryId, views, Long::sum);
+            categoryEvents.merge(categoryId, 1, Integer::sum);
+            put(suggestion);
+        }
+
+        /**
+         * Возвращает категорию удалённого события, чтобы вызывающий пересчитал её подсказку.
+         */
+        private Long removeEvent(long id) {
+            IndexedEvent event = events.remove(id);
+
+            if (event == null) {
+                return null;
+            }
+
+            remove(event.suggestion());
+            categoryPopularity.merge(event.categoryId(), -event.suggestion().popularity(), Long::sum);
+            categoryEvents.merge(event.categoryId(), -1, Integer::sum);
+
+            return event.categoryId();
+        }
+
+        /**
+         * Приводит подсказку категории к текущим названию и популярности; категория без опубликованных
+         * событий из индекса убирается.
+         */
+        private void refreshCategory(long id) {
+            Suggestion current = categories.get(id);
+
+            if (categoryEvents.getOrDefault(id, 0) <= 0) {
+                categoryEvents.remove(id);
+                categoryPopularity.remove(id);
+                categoryNames.remove(id);
+                if (current != null) {
+                    categories.remove(id);
+                    remove(current);
+                }
+                return;
+            }
+
+            Suggestion expected = new Suggestion(SuggestionType.CATEGORY, id, categoryNames.get(id),
+                    categoryPopularity.get(id));
+
+            if (expected.equals(current)) {
+                return;
+            }
+
+            if (current != null) {
+                remove(current);
+            }
+
+            categories.put(id, expected);
+            put(expected);
+        }
+
+        private void put(Suggestion suggestion) {
+            for (String word : wordSuffixes(suggestion.text())) {
+                keys.put(key(word, suggestion.type(), suggestion.id()), suggestion);
+
+                for (int length = 1; length <= Math.min(SHORT_PREFIX_LENGTH, word.length()); length++) {
+                    shortPrefixes.computeIfAbsent(word.substring(0, length),
+                            ignored -> new ConcurrentSkipListSet<>(RANKING)).add(suggestion);
+                }
+            }
+        }
+
+        private void remove(Suggestion suggestion) {
+            for (String word : wordSuffixes(suggestion.text())) {
+                keys.remove(key(word, suggestion.type(), suggestion.id()));
+
+                for (int length = 1; length <= Math.min(SHORT_PREFIX_LENGTH, word.length()); length++) {
+                    String prefix = word.substring(0, length);
+                    NavigableSet<Suggestion> popular = shortPrefixes.get(prefix);
+
+                    if (popular != null) {
+                        popular.remove(suggestion);
+                        if (popular.isEmpty()) {
+                            shortPrefixes.remove(prefix, popular);
+                        }
+                    }
+                }
+            }
+        }
+
+        private static Set<String> wordSuffixes(String text) {
+
+            String normalized = normalize(text);
+
+            Set<String> suffixes = new HashSet<>();
+
+            if (normalized.isEmpty()) {
+                return suffixes;
+            }
+
+            suffixes.add(normalized);
+
+            for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+                suffixes.add(normalized.substring(i + 1));
+            }
+
+            return suffixes;
+        }
+
+        private static String key(String word, SuggestionType type, long id) {
+            return word + KEY_DELIMITER + type.ordinal() + ':' + id;
+        }
+    }
+
+    private record Suggestion(SuggestionType type, long id, String text, long popularity) {
+    }
+
+    private record IndexedEvent(Suggestion suggestion, long categoryId) {
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.main.event.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.repository.EventShortView;
+import ru.practicum.stats.StatsClient;
+import ru.practicum.stats.dto.UriStartDto;
+import ru.practicum.stats.dto.ViewStatsDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static ru.practicum.main.config.Constant.DEFAULT_START;
+import static ru.practicum.main.config.Constant.FORMATTER;
+
+/**
+ * Загрузка просмотров из сервиса статистики одним запросом {@code /stats/views} на страницу. Запрос ограничен
+ * таймаутом чтения {@code stats.views-timeout-ms}; если статистика не ответила к сроку или упала,
+ * используются просмотры, сохранённые в самом событии.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventViewsLoader {
+
+    private final StatsClient statsClient;
+
+    public Map<Long, Long> loadEvents(List<Event> events) {
+        return load(events, Event::getId, Event::getPublishedOn, Event::getViews);
+    }
+
+    public Map<Long, Long> loadShortViews(List<EventShortView> events) {
+        return load(events, EventShortView::id, EventShortView::publishedOn, EventShortView::views);
+    }
+
+    /**
+     * Просмотры, сохранённые в событиях, без обращения к статистике. Нужны выдаче с сортировкой по просмотрам:
+     * страница упорядочена по {@code events.views}, и показывать надо те же числа, иначе порядок и курсор
+     * расходятся с тем, что видит клиент. Значение обновляет {@link EventViewsRefresher}, поэтому оно отстаёт
+     * от статистики не больше чем на интервал обхода. Курсор по {@code (views, id)} при этом не стабилен:
+     * если между запросами страниц обход изменил просмотры, событие может повториться или пропасть.
+     */
+    public Map<Long, Long> storedShortViews(List<EventShortView> events) {
+
+        Map<Long, Long> result = new HashMap<>();
+
+        for (EventShortView event : events) {
+            result.put(event.id(), event.views());
+        }
+
+        return result;
+    }
+
+    private <T> Map<Long, Long> load(List<T> events, Function<T, Long> idGetter,
+                                     Function<T, LocalDateTime> publishedOnGetter,
+                                     Function<T, Long> storedViewsGetter) {
+
+        if (events.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, Long> uriToEventId = new HashMap<>();
+        Map<Long, Long> storedViews = new HashMap<>();
+
+        List<UriStartDto> uris = new ArrayList<>();
+
+        for (T event : events) {
+            Long eventId = idGetter.apply(event);
+            LocalDateTime publishedOn = publishedOnGetter.apply(event);
+
+            String start = publishedOn == null
+                    ? DEFAULT_START
+                    : publishedOn.format(FORMATTER);
+
+            String uri = "/events/" + eventId;
+
+            uriToEventId.put(uri, eventId);
+            storedViews.put(eventId, storedViewsGetter.apply(event));
+            uris.add(new UriStartDto(uri, start));
+        }
+
+        List<ViewStatsDto> stats;
+
+        try {
+            stats = statsClient.getViews(uris, LocalDateTime.now().format(FORMATTER), true);
+        } catch (RestClientException exception) {
+            log.warn("Не удалось получить просмотры, используются сохранённые: {}", exception.getMessage());
+            return storedViews;
+        }
+
+        Map<Long, Long> result = new HashMap<>();
+
+        for (ViewStatsDto viewStats : stats) {
+            Long eventId = uriToEventId.get(viewStats.getUri());
+            if (eventId != null) {
+                result.merge(eventId, viewStats.getHits(), Long::sum);
+            }
+        }
+
+        return result;
+    }
+}
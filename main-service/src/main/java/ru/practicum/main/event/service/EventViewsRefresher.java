@@ -0,0 +1,106 @@
+package ru.practicum.main.event.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import ru.practicum.main.event.enums.EventState;
+import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.event.repository.EventRepository.EventPublication;
+import ru.practicum.stats.StatsClient;
+import ru.practicum.stats.dto.UriStartDto;
+import ru.practicum.stats.dto.ViewStatsDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ru.practicum.main.config.Constant.DEFAULT_START;
+import static ru.practicum.main.config.Constant.FORMATTER;
+
+@Slf4j
+@Component
+public class EventViewsRefresher {
+
+    private final EventRepository eventRepository;
+    private final StatsClient statsClient;
+
+    @Value("${stats.views-refresh.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Обход идёт в фоне пачками по {@code batchSize} событий, поэтому он читает просмотры собственным клиентом:
+     * с обычным таймаутом {@code stats.read-timeout-ms} вместо короткого таймаута запросов пользователя и в обход
+     * кэша просмотров, потому что обходу нужны свежие значения.
+     */
+    public EventViewsRefresher(EventRepository eventRepository, RestClient statsRestClient,
+                               @Value("${stats.app-name}") String appName) {
+        this.eventRepository = eventRepository;
+        this.statsClient = new StatsClient(statsRestClient, appName);
+    }
+
+    @Scheduled(fixedDelayString = "${stats.views-refresh.interval-ms:60000}",
+            initialDelayString = "${stats.views-refresh.initial-delay-ms:10000}")
+    public void refresh() {
+
+        long afterId = 0;
+        int updated = 0;
+
+        try {
+            List<EventPublication> batch;
+
+            do {
+                batch = eventRepository.findPublications(EventState.PUBLISHED, afterId, Limit.of(batchSize));
+
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                updated += refreshBatch(batch);
+                afterId = batch.getLast().getId();
+            } while (batch.size() == batchSize);
+        } catch (RestClientException exception) {
+            log.warn("Не удалось обновить просмотры событий: {}", exception.getMessage());
+        }
+
+        log.debug("Обновлены просмотры у {} событий", updated);
+    }
+
+    private int refreshBatch(List<EventPublication> batch) {
+
+        String end = LocalDateTime.now().format(FORMATTER);
+
+        Map<String, Long> uriToEventId = new HashMap<>();
+
+        List<UriStartDto> uris = new ArrayList<>();
+
+        for (EventPublication event : batch) {
+            String start = event.getPublishedOn() == null
+                    ? DEFAULT_START
+                    : event.getPublishedOn().format(FORMATTER);
+
+            String uri = "/events/" + event.getId();
+
+            uriToEventId.put(uri, event.getId());
+            uris.add(new UriStartDto(uri, start));
+        }
+
+        Map<Long, Long> views = new HashMap<>();
+
+        batch.forEach(event -> views.put(event.getId(), 0L));
+
+        for (ViewStatsDto stats : statsClient.getViews(uris, end, true)) {
+            Long eventId = uriToEventId.get(stats.getUri());
+            if (eventId != null) {
+                views.merge(eventId, stats.getHits(), Long::sum);
+            }
+        }
+
+        return eventRepository.updateViews(views.keySet().toArray(Long[]::new), views.values().toArray(Long[]::new));
+    }
+}
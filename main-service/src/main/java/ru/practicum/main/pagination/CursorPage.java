@@ -0,0 +1,24 @@
+package ru.practicum.main.pagination;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPage<T>(List<T> content, String nextCursor) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static <T> CursorPage<T> of(List<T> content, int size, Function<T, PageCursor> cursorOf) {
+        return new CursorPage<>(content, PageCursor.next(content, size, cursorOf));
+    }
+
+    public List<T> writeTo(HttpServletResponse response) {
+
+        if (nextCursor != null) {
+            response.setHeader(NEXT_CURSOR_HEADER, nextCursor);
+        }
+
+        return content;
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.main.pagination;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.main.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Непрозрачный курсор для постраничной выборки по ключу: хранит сортировку, значение ключа сортировки
+ * последней строки страницы и её id. Следующая страница начинается строго после этой строки в порядке
+ * сортировки: для ключа по возрастанию это {@code key > value OR (key = value AND id > lastId)}, для ключа по
+ * убыванию (просмотры) — {@code key < value OR (key = value AND id > lastId)}, для комментариев, где по
+ * убыванию идут и дата, и id, — {@code created_on < value OR (created_on = value AND id < lastId)}.
+ */
+public record PageCursor(String sort, String value, long id) {
+
+    public static final String BY_ID = "id";
+
+    private static final String SEPARATOR = "|";
+    private static final String INVALID_CURSOR = "Некорректный курсор страницы.";
+
+    public static PageCursor of(String sort, Object value, long id) {
+        return new PageCursor(sort, value == null ? "" : value.toString(), id);
+    }
+
+    public static PageCursor byId(long id) {
+        return new PageCursor(BY_ID, "", id);
+    }
+
+    public static PageCursor decode(String cursor, String expectedSort) {
+
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        PageCursor decoded;
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            decoded = new PageCursor(parts[0], parts[1], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exception) {
+            throw new BadRequestException(INVALID_CURSOR);
+        }
+
+        if (!decoded.sort().equals(expectedSort)) {
+            throw new BadRequestException("Курсор получен для другой сортировки.");
+        }
+
+        return decoded;
+    }
+
+    public static long afterId(PageCursor cursor) {
+        return cursor == null ? 0 : cursor.id();
+    }
+
+    public static Pageable pageable(PageCursor cursor, int from, int size, Sort sort) {
+        return PageRequest.of(cursor == null ? from / size : 0, size, sort);
+    }
+
+    public static <T> String next(List<T> rows, int size, Function<T, PageCursor> cursorOf) {
+        return rows.isEmpty() || rows.size() < size ? null : cursorOf.apply(rows.getLast()).encode();
+    }
+
+    public String encode() {
+        String raw = sort + SEPARATOR + value + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime dateValue() {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (RuntimeException exception) {
+            throw new BadRequestException(INVALID_CURSOR);
+        }
+    }
+
+    public long longValue() {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException exception) {
+            throw new BadRequestException(INVALID_CURSOR);
+        }
+    }
+}
@@ -1,9 +0,0 @@
-package ru.practicum.main.request.enums;
-
-public interface RequestCount {
-
-    Long getEventId();
-
-    Long getTotal();
-
-}
@@ -1,9 +1,8 @@
 package ru.practicum.main.request.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
-import ru.practicum.main.request.enums.RequestCount;
+import org.springframework.data.jpa.repository.Lock;
 import ru.practicum.main.request.enums.RequestStatus;
 import ru.practicum.main.request.model.ParticipationRequest;
 
@@ -18,18 +17,11 @@ public interface ParticipationRequestRepository extends JpaRepository<Participat
 
     List<ParticipationRequest> findByEventIdAndStatus(Long eventId, RequestStatus status);
 
-    Optional<ParticipationRequest> findByIdAndRequesterId(Long id, Long requesterId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ParticipationRequest> findLockedByIdAndRequesterId(Long id, Long requesterId);
 
-    boolean existsByRequesterIdAndEventId(Long requesterId, Long eventId);
-
-    long countByEventIdAndStatus(Long eventId, RequestStatus status);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ParticipationRequest> findLockedByIdIn(List<Long> ids);
 
-    @Query("SELECT r.event.id AS eventId, " +
-            "       COUNT(r.id) AS total " +
-            "FROM ParticipationRequest r " +
-            "WHERE r.event.id IN :eventIds " +
-            "  AND r.status = :status " +
-            "GROUP BY r.event.id")
-    List<RequestCount> countByEventIdsAndStatus(@Param("eventIds") List<Long> eventIds,
-                                                @Param("status") RequestStatus status);
+    boolean existsByRequesterIdAndEventId(Long requesterId, Long eventId);
 }
@@ -62,18 +62,20 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
             throw new ConflictException("Нельзя добавить повторный запрос.");
         }
 
-        long confirmed = requestRepository.countByEventIdAndStatus(eventId, RequestStatus.CONFIRMED);
-
-        if (event.getParticipantLimit() > 0 && confirmed >= event.getParticipantLimit()) {
-            throw new ConflictException("Достигнут лимит участников.");
-        }
-
         RequestStatus status;
 
+        boolean limitReached;
+
         if (!event.isRequestModeration() || event.getParticipantLimit() == 0) {
             status = RequestStatus.CONFIRMED;
+            limitReached = eventRepository.incrementConfirmedRequests(eventId) == 0;
         } else {
             status = RequestStatus.PENDING;
+            limitReached = event.getConfirmedRequests() >= event.getParticipantLimit();
+        }
+
+        if (limitReached) {
+            throw new ConflictException("Достигнут лимит участников.");
         }
 
         ParticipationRequest request = ParticipationRequestMapper.toEntity(
@@ -88,9 +90,13 @@ public class ParticipationRequestServiceImpl implements ParticipationRequestServ
     @Transactional
     public ParticipationRequestDto cancelRequest(long userId, long requestId) {
 
-        ParticipationRequest request = requestRepository.findByIdAndRequesterId(requestId, userId)
+        ParticipationRequest request = requestRepository.findLockedByIdAndRequesterId(requestId, userId)
                 .orElseThrow(() -> new NotFoundException("Запрос с id=" + requestId + " не найден."));
 
+        if (request.getStatus() == RequestStatus.CONFIRMED) {
+            eventRepository.decrementConfirmedRequests(request.getEvent().getId());
+        }
+
         request.setStatus(RequestStatus.CANCELED);
 
         return ParticipationRequestMapper.toDto(requestRepository.save(request));
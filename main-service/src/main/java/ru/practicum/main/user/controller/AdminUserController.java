@@ -1,5 +1,6 @@
 package ru.practicum.main.user.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -34,8 +35,10 @@ public class AdminUserController {
     @GetMapping
     public List<UserDto> getUsers(@RequestParam(required = false) List<Long> ids,
                                   @RequestParam(defaultValue = "0") int from,
-                                  @RequestParam(defaultValue = "10") int size) {
-        return service.getUsers(ids, from, size);
+                                  @RequestParam(defaultValue = "10") int size,
+                                  @RequestParam(required = false) String after,
+                                  HttpServletResponse response) {
+        return service.getUsers(ids, from, size, after).writeTo(response);
     }
 
     @DeleteMapping("/{userId}")
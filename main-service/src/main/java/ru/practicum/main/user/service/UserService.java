@@ -1,5 +1,6 @@
 package ru.practicum.main.user.service;
 
+import ru.practicum.main.pagination.CursorPage;
 import ru.practicum.main.user.dto.UserDto;
 import ru.practicum.main.user.model.NewUserRequest;
 
@@ -9,7 +10,7 @@ public interface UserService {
 
     UserDto create(NewUserRequest request);
 
-    List<UserDto> getUsers(List<Long> ids, int from, int size);
+    CursorPage<UserDto> getUsers(List<Long> ids, int from, int size, String after);
 
     void delete(long id);
 }
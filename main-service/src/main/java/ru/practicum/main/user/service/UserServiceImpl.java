@@ -1,13 +1,14 @@
 package ru.practicum.main.user.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.main.exception.BadRequestException;
 import ru.practicum.main.exception.ConflictException;
 import ru.practicum.main.exception.NotFoundException;
+import ru.practicum.main.pagination.CursorPage;
+import ru.practicum.main.pagination.PageCursor;
 import ru.practicum.main.user.dto.UserDto;
 import ru.practicum.main.user.mapper.UserMapper;
 import ru.practicum.main.user.model.NewUserRequest;
@@ -40,23 +41,27 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<UserDto> getUsers(List<Long> ids, int from, int size) {
+    public CursorPage<UserDto> getUsers(List<Long> ids, int from, int size, String after) {
 
         if (from < 0 || size <= 0) {
             throw new BadRequestException("Номер страницы должен быть положительный.");
         }
 
-        int page = from / size;
-
         if (ids == null || ids.isEmpty()) {
-            return repository.findAll(PageRequest.of(page, size, Sort.by("id")))
+            PageCursor cursor = PageCursor.decode(after, PageCursor.BY_ID);
+
+            List<UserDto> users = repository.findByIdGreaterThan(PageCursor.afterId(cursor),
+                            PageCursor.pageable(cursor, from, size, Sort.by("id")))
+                    .stream()
                     .map(UserMapper::toDto)
                     .toList();
+
+            return CursorPage.of(users, size, user -> PageCursor.byId(user.getId()));
         }
 
-        return repository.findAllById(ids).stream()
+        return new CursorPage<>(repository.findAllById(ids).stream()
                 .map(UserMapper::toDto)
-                .toList();
+                .toList(), null);
     }
 
     @Override
@@ -0,0 +1,59 @@
+CREATE TABLE IF NOT EXISTS users (
+    id    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    name  VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS categories (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS events (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    annotation         VARCHAR(2000) NOT NULL,
+    category_id        BIGINT        NOT NULL REFERENCES categories (id),
+    description        VARCHAR(7000) NOT NULL,
+    event_date         TIMESTAMP(6)  NOT NULL,
+    created_on         TIMESTAMP(6)  NOT NULL,
+    published_on       TIMESTAMP(6),
+    initiator_id       BIGINT        NOT NULL REFERENCES users (id),
+    lat                FLOAT4,
+    lon                FLOAT4,
+    paid               BOOLEAN       NOT NULL,
+    participant_limit  INTEGER       NOT NULL,
+    request_moderation BOOLEAN       NOT NULL,
+    state              VARCHAR(255)  NOT NULL CHECK (state IN ('PENDING', 'PUBLISHED', 'CANCELED')),
+    title              VARCHAR(120)  NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS requests (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created      TIMESTAMP(6) NOT NULL,
+    event_id     BIGINT       NOT NULL REFERENCES events (id),
+    requester_id BIGINT       NOT NULL REFERENCES users (id),
+    status       VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'CONFIRMED', 'REJECTED', 'CANCELED')),
+    CONSTRAINT uq_request UNIQUE (requester_id, event_id)
+);
+
+CREATE TABLE IF NOT EXISTS compilations (
+    id     BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    pinned BOOLEAN NOT NULL,
+    title  VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS compilation_events (
+    compilation_id BIGINT NOT NULL REFERENCES compilations (id),
+    event_id       BIGINT NOT NULL REFERENCES events (id),
+    PRIMARY KEY (compilation_id, event_id)
+);
+
+CREATE TABLE IF NOT EXISTS comments (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    author_id  BIGINT        NOT NULL REFERENCES users (id),
+    event_id   BIGINT        NOT NULL REFERENCES events (id),
+    text       VARCHAR(2000) NOT NULL,
+    status     VARCHAR(255)  NOT NULL CHECK (status IN ('PENDING', 'PUBLISHED', 'REJECTED')),
+    created_on TIMESTAMP(6)  NOT NULL,
+    updated_on TIMESTAMP(6)  NOT NULL
+);
@@ -0,0 +1,10 @@
+ALTER TABLE events
+    ADD COLUMN IF NOT EXISTS confirmed_requests BIGINT NOT NULL DEFAULT 0;
+
+UPDATE events e
+SET confirmed_requests = c.total
+FROM (SELECT event_id, COUNT(*) AS total
+      FROM requests
+      WHERE status = 'CONFIRMED'
+      GROUP BY event_id) c
+WHERE e.id = c.event_id;
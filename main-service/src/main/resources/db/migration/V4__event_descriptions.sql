@@ -0,0 +1,77 @@
+CREATE TABLE IF NOT EXISTS event_descriptions
+(
+    event_id    BIGINT PRIMARY KEY REFERENCES events (id) ON DELETE CASCADE,
+    description VARCHAR(7000) NOT NULL
+);
+
+INSERT INTO event_descriptions (event_id, description)
+SELECT id, description
+FROM events
+ON CONFLICT (event_id) DO NOTHING;
+
+ALTER TABLE events
+    DROP COLUMN search_vector;
+
+ALTER TABLE events
+    DROP COLUMN description;
+
+CREATE OR REPLACE FUNCTION event_search_vector(title TEXT, annotation TEXT, description TEXT)
+    RETURNS TSVECTOR
+    LANGUAGE sql
+    IMMUTABLE
+AS
+$$
+SELECT setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+       setweight(to_tsvector('russian', coalesce(annotation, '')), 'B') ||
+       setweight(to_tsvector('russian', coalesce(description, '')), 'C') ||
+       setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+       setweight(to_tsvector('english', coalesce(annotation, '')), 'B') ||
+       setweight(to_tsvector('english', coalesce(description, '')), 'C')
+$$;
+
+ALTER TABLE events
+    ADD COLUMN search_vector TSVECTOR;
+
+UPDATE events e
+SET search_vector = event_search_vector(e.title, e.annotation, d.description)
+FROM event_descriptions d
+WHERE d.event_id = e.id;
+
+CREATE INDEX idx_events_search_vector ON events USING GIN (search_vector);
+
+CREATE OR REPLACE FUNCTION events_search_vector_trigger()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    NEW.search_vector := event_search_vector(NEW.title, NEW.annotation,
+                                             (SELECT description FROM event_descriptions WHERE event_id = NEW.id));
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER events_search_vector
+    BEFORE INSERT OR UPDATE OF title, annotation
+    ON events
+    FOR EACH ROW
+EXECUTE FUNCTION events_search_vector_trigger();
+
+CREATE OR REPLACE FUNCTION event_descriptions_search_vector_trigger()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    UPDATE events
+    SET search_vector = event_search_vector(title, annotation, NEW.description)
+    WHERE id = NEW.event_id;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER event_descriptions_search_vector
+    AFTER INSERT OR UPDATE OF description
+    ON event_descriptions
+    FOR EACH ROW
+EXECUTE FUNCTION event_descriptions_search_vector_trigger();
@@ -0,0 +1,16 @@
+CREATE INDEX IF NOT EXISTS idx_events_published_event_date ON events (event_date, id) WHERE state = 'PUBLISHED';
+
+CREATE INDEX IF NOT EXISTS idx_events_state_event_date ON events (state, event_date);
+
+CREATE INDEX IF NOT EXISTS idx_events_initiator_id ON events (initiator_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_events_category_id ON events (category_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_event_id_status ON requests (event_id, status);
+
+CREATE INDEX IF NOT EXISTS idx_comments_event_id_status_created_on
+    ON comments (event_id, status, created_on DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_comments_author_id_created_on ON comments (author_id, created_on DESC);
+
+CREATE INDEX IF NOT EXISTS idx_comments_status_created_on ON comments (status, created_on DESC);
@@ -0,0 +1,79 @@
+package ru.practicum.main;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет миграции на базе, которую создал Hibernate до перехода на Flyway: Flyway ставит на неё базовую
+ * версию 0 и применяет все миграции поверх существующих таблиц и данных.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class MigrationsTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16.1");
+
+    @Test
+    void migratesDatabaseCreatedByHibernate() throws SQLException, IOException {
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            for (String ddl : baselineSchema().split(";")) {
+                if (!ddl.isBlank()) {
+                    statement.execute(ddl);
+                }
+            }
+
+            statement.execute("INSERT INTO users (name, email) VALUES ('Initiator', 'initiator@mail.ru'), " +
+                    "('Participant', 'participant@mail.ru')");
+            statement.execute("INSERT INTO categories (name) VALUES ('Concerts')");
+            statement.execute("INSERT INTO events (annotation, category_id, description, event_date, created_on, " +
+                    "initiator_id, lat, lon, paid, participant_limit, request_moderation, state, title) " +
+                    "VALUES ('Annotation', 1, 'Description', now(), now(), 1, 55.7, 37.6, false, 0, false, " +
+                    "'PUBLISHED', 'Title')");
+            statement.execute("INSERT INTO requests (created, event_id, requester_id, status) " +
+                    "VALUES (now(), 1, 2, 'CONFIRMED')");
+        }
+
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT e.views, e.confirmed_requests, d.description " +
+                     "FROM events e JOIN event_descriptions d ON d.event_id = e.id WHERE e.id = 1")) {
+
+            assertThat(rs.next()).isTrue();
+            assertThat(rs.getLong("views")).isZero();
+            assertThat(rs.getLong("confirmed_requests")).isEqualTo(1);
+            assertThat(rs.getString("description")).isEqualTo("Description");
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    private static String baselineSchema() throws IOException {
+        try (InputStream in = MigrationsTest.class.getResourceAsStream("/db/baseline-schema.sql")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).replaceAll("(?m)^--.*$", "");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.main;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет, что запросы, под которые написана миграция V5, используют её индексы. Последовательное
+ * сканирование выключено, поэтому на пустых таблицах планировщик выбирает индекс, если он вообще подходит.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class QueryIndexesTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16.1");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+                POSTGRES.getPassword());
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void publicEventsUsePublishedEventDateIndex() throws SQLException {
+        assertThat(explain("SELECT id FROM events " +
+                "WHERE state = 'PUBLISHED' AND event_date > now() " +
+                "ORDER BY event_date, id LIMIT 10"))
+                .contains("idx_events_published_event_date");
+    }
+
+    @Test
+    void adminEventsUseStateEventDateIndex() throws SQLException {
+        assertThat(explain("SELECT id FROM events " +
+                "WHERE state IN ('PENDING', 'CANCELED') AND event_date > now()"))
+                .contains("idx_events_state_event_date");
+    }
+
+    @Test
+    void userEventsUseInitiatorIndex() throws SQLException {
+        assertThat(explain("SELECT id FROM events WHERE initiator_id = 1 ORDER BY id LIMIT 10"))
+                .contains("idx_events_initiator_id");
+    }
+
+    @Test
+    void categoryCheckUsesCategoryIndex() throws SQLException {
+        assertThat(explain("SELECT 1 FROM events WHERE category_id = 1 LIMIT 1"))
+                .contains("idx_events_category_id");
+    }
+
+    @Test
+    void eventRequestsUseEventStatusIndex() throws SQLException {
+        assertThat(explain("SELECT id FROM requests WHERE event_id = 1 AND status = 'PENDING'"))
+                .contains("idx_requests_event_id_status");
+    }
+
+    @Test
+    void publicCommentsUseEventStatusCreatedOnIndex() throws SQLException {
+        assertThat(explain("SELECT id FROM comments " +
+                "WHERE event_id = 1 AND status = 'PUBLISHED' " +
+                "ORDER BY created_on DESC, id DESC LIMIT 10"))
+                .contains("idx_comments_event_id_status_created_on");
+    }
+
+    @Test
+    void authorCommentsUseAuthorCreatedOnIndex() throws SQLException {
+        assertThat(explain("SELECT id FROM comments WHERE author_id = 1 ORDER BY created_on DESC LIMIT 10"))
+                .contains("idx_comments_author_id_created_on");
+    }
+
+    @Test
+    void moderationCommentsUseStatusCreatedOnIndex() throws SQLException {
+        assertThat(explain("SELECT id FROM comments WHERE status = 'PENDING' ORDER BY created_on DESC LIMIT 10"))
+                .contains("idx_comments_status_created_on");
+    }
+
+    private static String explain(String query) throws SQLException {
+
+        StringBuilder plan = new StringBuilder();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN " + query)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+
+        return plan.toString();
+    }
+}
@@ -0,0 +1,159 @@
+package ru.practicum.main.event.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.main.category.model.Category;
+import ru.practicum.main.event.dto.EventSuggestionDto;
+import ru.practicum.main.event.enums.EventState;
+import ru.practicum.main.event.enums.SuggestionType;
+import ru.practicum.main.event.model.Event;
+import ru.practicum.main.event.repository.EventRepository;
+import ru.practicum.main.event.repository.EventRepository.EventSuggestionSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventSuggestionIndexTest {
+
+    private static final Category CONCERTS = new Category(1L, "Concerts");
+    private static final Category THEATRE = new Category(2L, "Theatre");
+
+    private final EventRepository eventRepository = mock(EventRepository.class);
+
+    private final EventSuggestionIndex index = new EventSuggestionIndex(eventRepository);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "maxSize", 50);
+
+        when(eventRepository.findSuggestionSources(any())).thenReturn(List.of(
+                source(1, "Summer jazz night", 300, CONCERTS),
+                source(2, "Jazz brunch", 50, CONCERTS),
+                source(3, "Hamlet", 120, THEATRE)));
+
+        index.rebuild();
+    }
+
+    @Test
+    void findsByAnyWordOrderedByPopularity() {
+
+        assertThat(texts(index.suggest("jaz", 10))).containsExactly("Summer jazz night", "Jazz brunch");
+        assertThat(texts(index.suggest("night", 10))).containsExactly("Summer jazz night");
+        assertThat(texts(index.suggest("ja", 10))).containsExactly("Summer jazz night", "Jazz brunch");
+    }
+
+    @Test
+    void ranksCategoriesBySumOfEventViews() {
+        assertThat(index.suggest("concerts", 10)).singleElement()
+                .satisfies(dto -> assertThat(dto.getType()).isEqualTo(SuggestionType.CATEGORY));
+        assertThat(texts(index.suggest("c", 10))).containsExactly("Concerts");
+        assertThat(texts(index.suggest("", 10))).isEmpty();
+    }
+
+    @Test
+    void shortAndLongPrefixesAgree() {
+
+        List<Event> events = new ArrayList<>();
+
+        for (long id = 10; id < 200; id++) {
+            events.add(event(id, "Talk " + id, id % 17, id % 2 == 0 ? CONCERTS : THEATRE, EventState.PUBLISHED));
+        }
+
+        events.forEach(index::update);
+
+        assertThat(texts(index.suggest("ta", 5))).containsExactlyElementsOf(texts(index.suggest("talk", 5)));
+        assertThat(index.suggest("t", 50)).hasSize(50);
+        assertThat(index.suggest("t", 500)).hasSize(50);
+    }
+
+    @Test
+    void updatesCategoryPopularityWhenViewsChange() {
+
+        index.update(event(3, "Hamlet", 1_000, THEATRE, EventState.PUBLISHED));
+
+        assertThat(texts(index.suggest("t", 10))).startsWith("Theatre");
+        assertThat(texts(index.suggest("h", 10))).containsExactly("Hamlet");
+    }
+
+    @Test
+    void removesCategoryWithoutPublishedEvents() {
+
+        index.update(event(3, "Hamlet", 120, THEATRE, EventState.CANCELED));
+
+        assertThat(index.suggest("hamlet", 10)).isEmpty();
+        assertThat(index.suggest("theatre", 10)).isEmpty();
+        assertThat(index.suggest("th", 10)).isEmpty();
+    }
+
+    @Test
+    void movesEventBetweenCategories() {
+
+        index.update(event(3, "Hamlet", 120, CONCERTS, EventState.PUBLISHED));
+
+        assertThat(index.suggest("theatre", 10)).isEmpty();
+        assertThat(texts(index.suggest("co", 10))).containsExactly("Concerts");
+
+        index.update(event(1, "Summer jazz night", 300, THEATRE, EventState.PUBLISHED));
+
+        assertThat(texts(index.suggest("theatre", 10))).containsExactly("Theatre");
+    }
+
+    @Test
+    void renamesEvent() {
+
+        index.update(event(2, "Blues brunch", 50, CONCERTS, EventState.PUBLISHED));
+
+        assertThat(texts(index.suggest("jazz", 10))).containsExactly("Summer jazz night");
+        assertThat(texts(index.suggest("bl", 10))).containsExactly("Blues brunch");
+        assertThat(texts(index.suggest("brunch", 10))).containsExactly("Blues brunch");
+    }
+
+    private static List<String> texts(List<EventSuggestionDto> suggestions) {
+        return suggestions.stream().map(EventSuggestionDto::getText).toList();
+    }
+
+    private static Event event(long id, String title, long views, Category category, EventState state) {
+        return Event.builder()
+                .id(id)
+                .title(title)
+                .views(views)
+                .category(category)
+                .state(state)
+                .build();
+    }
+
+    private static EventSuggestionSource source(long id, String title, long views, Category category) {
+        return new EventSuggestionSource() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public Long getViews() {
+                return views;
+            }
+
+            @Override
+            public Long getCategoryId() {
+                return category.getId();
+            }
+
+            @Override
+            public String getCategoryName() {
+                return category.getName();
+            }
+        };
+    }
+}
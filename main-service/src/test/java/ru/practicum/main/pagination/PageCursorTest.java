@@ -0,0 +1,122 @@
+package ru.practicum.main.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.main.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+
+        LocalDateTime eventDate = LocalDateTime.of(2024, 3, 1, 18, 30, 15);
+
+        PageCursor cursor = PageCursor.of("eventDate", eventDate, 42);
+
+        PageCursor decoded = PageCursor.decode(cursor.encode(), "eventDate");
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.dateValue()).isEqualTo(eventDate);
+        assertThat(decoded.id()).isEqualTo(42);
+    }
+
+    @Test
+    void encodesUrlSafeWithoutPadding() {
+
+        String encoded = PageCursor.of("views", 1234567L, Long.MAX_VALUE).encode();
+
+        assertThat(encoded).doesNotContain("+", "/", "=");
+        assertThat(PageCursor.decode(encoded, "views").longValue()).isEqualTo(1234567L);
+    }
+
+    @Test
+    void treatsMissingCursorAsFirstPage() {
+
+        assertThat(PageCursor.decode(null, PageCursor.BY_ID)).isNull();
+        assertThat(PageCursor.decode(" ", PageCursor.BY_ID)).isNull();
+        assertThat(PageCursor.afterId(null)).isZero();
+    }
+
+    @Test
+    void rejectsCursorOfAnotherSort() {
+
+        String encoded = PageCursor.byId(10).encode();
+
+        assertThatThrownBy(() -> PageCursor.decode(encoded, "views"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void rejectsTamperedCursor() {
+
+        assertThatThrownBy(() -> PageCursor.decode("not base64!", PageCursor.BY_ID))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> PageCursor.decode(raw("id|"), PageCursor.BY_ID))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> PageCursor.decode(raw("id||abc"), PageCursor.BY_ID))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> PageCursor.decode(raw("views|1|2|3"), "views"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void rejectsTamperedValueWhenRead() {
+
+        PageCursor views = PageCursor.decode(raw("views|many|5"), "views");
+        PageCursor date = PageCursor.decode(raw("eventDate|yesterday|5"), "eventDate");
+
+        assertThatThrownBy(views::longValue).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(date::dateValue).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void pageableIgnoresOffsetWhenCursorGiven() {
+
+        Sort sort = Sort.by("id");
+
+        Pageable withoutCursor = PageCursor.pageable(null, 20, 10, sort);
+        Pageable withCursor = PageCursor.pageable(PageCursor.byId(5), 20, 10, sort);
+
+        assertThat(withoutCursor.getPageNumber()).isEqualTo(2);
+        assertThat(withCursor.getPageNumber()).isZero();
+        assertThat(withCursor.getPageSize()).isEqualTo(10);
+    }
+
+    @Test
+    void returnsNextCursorOnlyForFullPage() {
+
+        assertThat(PageCursor.next(List.of(1L, 2L), 2, PageCursor::byId))
+                .isEqualTo(PageCursor.byId(2).encode());
+        assertThat(PageCursor.next(List.of(1L), 2, PageCursor::byId)).isNull();
+        assertThat(PageCursor.next(List.<Long>of(), 2, PageCursor::byId)).isNull();
+    }
+
+    @Test
+    void writesNextCursorHeader() {
+
+        MockHttpServletResponse full = new MockHttpServletResponse();
+        MockHttpServletResponse last = new MockHttpServletResponse();
+
+        List<Long> content = CursorPage.of(List.of(3L, 7L), 2, PageCursor::byId).writeTo(full);
+
+        CursorPage.of(List.of(9L), 2, PageCursor::byId).writeTo(last);
+
+        assertThat(content).containsExactly(3L, 7L);
+        assertThat(full.getHeader(CursorPage.NEXT_CURSOR_HEADER)).isEqualTo(PageCursor.byId(7).encode());
+        assertThat(last.containsHeader(CursorPage.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,16 @@
+-- Схема, которую создавал Hibernate (ddl-auto: update) до перехода на Flyway.
+create table categories (id bigint generated by default as identity, name varchar(255) not null unique, primary key (id));
+create table comments (author_id bigint not null, created_on timestamp(6) not null, event_id bigint not null, id bigint generated by default as identity, updated_on timestamp(6) not null, text varchar(2000) not null, status varchar(255) not null check (status in ('PENDING','PUBLISHED','REJECTED')), primary key (id));
+create table compilation_events (compilation_id bigint not null, event_id bigint not null, primary key (compilation_id, event_id));
+create table compilations (pinned boolean not null, id bigint generated by default as identity, title varchar(255), primary key (id));
+create table events (lat float4, lon float4, paid boolean not null, participant_limit integer not null, request_moderation boolean not null, category_id bigint not null, created_on timestamp(6) not null, event_date timestamp(6) not null, id bigint generated by default as identity, initiator_id bigint not null, published_on timestamp(6), title varchar(120) not null, annotation varchar(2000) not null, description varchar(7000) not null, state varchar(255) not null check (state in ('PENDING','PUBLISHED','CANCELED')), primary key (id));
+create table requests (created timestamp(6) not null, event_id bigint not null, id bigint generated by default as identity, requester_id bigint not null, status varchar(255) not null check (status in ('PENDING','CONFIRMED','REJECTED','CANCELED')), primary key (id), constraint uq_request unique (requester_id, event_id));
+create table users (id bigint generated by default as identity, email varchar(255) not null unique, name varchar(255) not null, primary key (id));
+alter table if exists comments add constraint FKn2na60ukhs76ibtpt9burkm27 foreign key (author_id) references users;
+alter table if exists comments add constraint FKh7gvo94krk5lt0ev1nklt1e5a foreign key (event_id) references events;
+alter table if exists compilation_events add constraint FKaotb0v4s78i5ulvmifbd1fl07 foreign key (event_id) references events;
+alter table if exists compilation_events add constraint FKa2vg2r2op6iuf9q4kp41ryim6 foreign key (compilation_id) references compilations;
+alter table if exists events add constraint FKo6mla8j1p5bokt4dxrlmgwc28 foreign key (category_id) references categories;
+alter table if exists events add constraint FKgsyp7tc40dhju9fq5i767kyun foreign key (initiator_id) references users;
+alter table if exists requests add constraint FKm7vtr0204t3xcymbx4sa9t1ot foreign key (event_id) references events;
+alter table if exists requests add constraint FKeoax2t4j9i61p9lmon3009tr4 foreign key (requester_id) references users;
@@ -0,0 +1,188 @@
+package ru.practicum.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+import ru.practicum.stats.dto.EndpointHitDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+public class HitSender implements AutoCloseable {
+
+    private final RestClient restClient;
+    private final BlockingQueue<EndpointHitDto> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final HitOverflowPolicy overflowPolicy;
+    private final long offerTimeoutMs;
+    private final Thread worker;
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * {@link #submit} проверяет {@link #running} и кладёт хит в очередь под блокировкой чтения, а
+     * {@link #close()} сбрасывает флаг под блокировкой записи. Поэтому после сброса флага в очередь ничего
+     * не попадает и финальная выгрузка очереди не теряет хиты.
+     */
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running = true;
+
+    public HitSender(RestClient restClient, int capacity, int batchSize, long flushIntervalMs,
+                     HitOverflowPolicy overflowPolicy, long offerTimeoutMs, ThreadFactory threadFactory) {
+        this.restClient = restClient;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.worker = threadFactory.newThread(this::run);
+        this.worker.start();
+    }
+
+    public void submit(EndpointHitDto hit) {
+
+        boolean accepted;
+
+        closeLock.readLock().lock();
+
+        try {
+            if (!running) {
+                long total = dropped.incrementAndGet();
+                log.warn("Отправка хитов остановлена, хит отброшен. Всего отброшено: {}", total);
+                return;
+            }
+
+            accepted = offer(hit);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+
+        if (!accepted) {
+            long total = dropped.incrementAndGet();
+            log.debug("Очередь хитов переполнена, хит отброшен. Всего отброшено: {}", total);
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() {
+
+        closeLock.writeLock().lock();
+
+        try {
+            running = false;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+
+        try {
+            worker.join(flushIntervalMs * 2 + 1000);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        flushRemaining();
+    }
+
+    private boolean offer(EndpointHitDto hit) {
+
+        if (overflowPolicy != HitOverflowPolicy.BLOCK) {
+            return queue.offer(hit);
+        }
+
+        try {
+            return queue.offer(hit, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void run() {
+        List<EndpointHitDto> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            if (!batch.isEmpty()) {
+                send(batch);
+                batch.clear();
+            }
+        }
+
+        flushRemaining();
+    }
+
+    private void collectBatch(List<EndpointHitDto> batch) throws InterruptedException {
+        EndpointHitDto first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+
+        if (first == null) {
+            return;
+        }
+
+        batch.add(first);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+
+            long remaining = deadline - System.nanoTime();
+
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+
+            EndpointHitDto next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+
+            if (next == null) {
+                return;
+            }
+
+            batch.add(next);
+        }
+    }
+
+    private void flushRemaining() {
+        List<EndpointHitDto> batch = new ArrayList<>(batchSize);
+
+        while (queue.drainTo(batch, batchSize) > 0) {
+            send(batch);
+            batch.clear();
+        }
+    }
+
+    private void send(List<EndpointHitDto> batch) {
+        try {
+            restClient.post()
+                    .uri("/hits")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(batch)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RuntimeException exception) {
+            log.warn("Не удалось отправить {} хитов в сервис статистики: {}", batch.size(), exception.getMessage());
+        }
+    }
+}
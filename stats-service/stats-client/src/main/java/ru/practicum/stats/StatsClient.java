@@ -1,23 +1,51 @@
 package ru.practicum.stats;
 
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.RequiredArgsConstructor;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.util.UriBuilder;
 import ru.practicum.stats.dto.EndpointHitDto;
 import ru.practicum.stats.dto.StatsConstants;
+import ru.practicum.stats.dto.UriStartDto;
 import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.dto.ViewsRequestDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
-@RequiredArgsConstructor
 public class StatsClient {
 
     private final RestClient restClient;
+    private final RestClient viewsRestClient;
     private final String app;
+    private final HitSender hitSender;
+    private final ViewsCache viewsCache;
+
+    public StatsClient(RestClient restClient, String app) {
+        this(restClient, app, null, null);
+    }
+
+    public StatsClient(RestClient restClient, String app, HitSender hitSender) {
+        this(restClient, app, hitSender, null);
+    }
+
+    public StatsClient(RestClient restClient, String app, HitSender hitSender, ViewsCache viewsCache) {
+        this(restClient, restClient, app, hitSender, viewsCache);
+    }
+
+    /**
+     * @param viewsRestClient клиент для {@code /stats/views}: обычно с более коротким таймаутом чтения, чем
+     *                        {@code restClient}, потому что просмотры читаются на пути ответа пользователю
+     */
+    public StatsClient(RestClient restClient, RestClient viewsRestClient, String app, HitSender hitSender,
+                       ViewsCache viewsCache) {
+        this.restClient = restClient;
+        this.viewsRestClient = viewsRestClient;
+        this.app = app;
+        this.hitSender = hitSender;
+        this.viewsCache = viewsCache;
+    }
 
     public void addHit(HttpServletRequest request) {
         EndpointHitDto endpointHitDto = new EndpointHitDto();
@@ -25,6 +53,12 @@ public class StatsClient {
         endpointHitDto.setUri(request.getRequestURI());
         endpointHitDto.setIp(request.getRemoteAddr());
         endpointHitDto.setTimestamp(LocalDateTime.now().format(StatsConstants.DATE_TIME_FORMATTER));
+
+        if (hitSender != null) {
+            hitSender.submit(endpointHitDto);
+            return;
+        }
+
         restClient.post()
                 .uri("/hit")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -34,6 +68,11 @@ public class StatsClient {
     }
 
     public List<ViewStatsDto> getStats(String start, String end, List<String> uris, boolean unique) {
+        return getStats(start, end, uris, unique, false);
+    }
+
+    public List<ViewStatsDto> getStats(String start, String end, List<String> uris, boolean unique,
+                                       boolean approx) {
         return restClient.get()
                 .uri(uriBuilder -> {
                     UriBuilder b = uriBuilder.path("/stats")
@@ -43,6 +82,10 @@ public class StatsClient {
                         b.queryParam("unique", true);
                     }
 
+                    if (approx) {
+                        b.queryParam("approx", true);
+                    }
+
                     if (uris != null && !uris.isEmpty()) {
                         b.queryParam("uris", uris);
                     }
@@ -53,4 +96,27 @@ public class StatsClient {
                 .body(new ParameterizedTypeReference<List<ViewStatsDto>>() {
                 });
     }
-}
\ No newline at end of file
+
+    public List<ViewStatsDto> getViews(List<UriStartDto> uris, String end, boolean unique) {
+        if (uris == null || uris.isEmpty()) {
+            return List.of();
+        }
+
+        if (viewsCache != null) {
+            return viewsCache.get(uris, unique, missing ->
+                    fetchViews(missing, LocalDateTime.now().format(StatsConstants.DATE_TIME_FORMATTER), unique));
+        }
+
+        return fetchViews(uris, end, unique);
+    }
+
+    private List<ViewStatsDto> fetchViews(List<UriStartDto> uris, String end, boolean unique) {
+        return viewsRestClient.post()
+                .uri("/stats/views")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ViewsRequestDto(uris, end, unique))
+                .retrieve()
+                .body(new ParameterizedTypeReference<List<ViewStatsDto>>() {
+                });
+    }
+}
@@ -1,23 +1,84 @@
 package ru.practicum.stats;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+
 @Configuration
 public class StatsClientConfig {
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Bean
-    public RestClient statsRestClient(@Value("${stats.base-url}") String baseUrl) {
+    public RestClient statsRestClient(@Value("${stats.base-url}") String baseUrl,
+                                      @Value("${stats.connect-timeout-ms:1000}") long connectTimeoutMs,
+                                      @Value("${stats.read-timeout-ms:5000}") long readTimeoutMs) {
         return RestClient.builder()
                 .baseUrl(baseUrl)
+                .requestFactory(requestFactory(connectTimeoutMs, readTimeoutMs))
                 .build();
     }
 
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "stats.hits.async", havingValue = "true")
+    public HitSender hitSender(RestClient statsRestClient,
+                               @Value("${stats.hits.queue-capacity:10000}") int queueCapacity,
+                               @Value("${stats.hits.batch-size:100}") int batchSize,
+                               @Value("${stats.hits.flush-interval-ms:1000}") long flushIntervalMs,
+                               @Value("${stats.hits.overflow-policy:DROP}") HitOverflowPolicy overflowPolicy,
+                               @Value("${stats.hits.offer-timeout-ms:50}") long offerTimeoutMs) {
+        return new HitSender(statsRestClient, queueCapacity, batchSize, flushIntervalMs, overflowPolicy,
+                offerTimeoutMs, threadFactory("stats-hit-sender"));
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "stats.views-cache.enabled", havingValue = "true")
+    public ViewsCache viewsCache(@Value("${stats.views-cache.max-size:10000}") int maxSize,
+                                 @Value("${stats.views-cache.fresh-ms:10000}") long freshMs,
+                                 @Value("${stats.views-cache.max-stale-ms:300000}") long maxStaleMs,
+                                 @Value("${stats.views-cache.refresh-threads:2}") int refreshThreads) {
+        return new ViewsCache(maxSize, freshMs, maxStaleMs, refreshThreads, threadFactory("stats-views-refresh"));
+    }
+
     @Bean
     public StatsClient statsClient(RestClient statsRestClient,
-                                   @Value("${stats.app-name}") String appName) {
-        return new StatsClient(statsRestClient, appName);
+                                   @Value("${stats.app-name}") String appName,
+                                   @Value("${stats.connect-timeout-ms:1000}") long connectTimeoutMs,
+                                   @Value("${stats.views-timeout-ms:${stats.read-timeout-ms:5000}}")
+                                   long viewsTimeoutMs,
+                                   ObjectProvider<HitSender> hitSender,
+                                   ObjectProvider<ViewsCache> viewsCache) {
+        RestClient viewsRestClient = statsRestClient.mutate()
+                .requestFactory(requestFactory(connectTimeoutMs, viewsTimeoutMs))
+                .build();
+
+        return new StatsClient(statsRestClient, viewsRestClient, appName, hitSender.getIfAvailable(),
+                viewsCache.getIfAvailable());
+    }
+
+    private JdkClientHttpRequestFactory requestFactory(long connectTimeoutMs, long readTimeoutMs) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+
+        return requestFactory;
+    }
+
+    private ThreadFactory threadFactory(String name) {
+        return virtualThreads
+                ? Thread.ofVirtual().name(name + "-", 0).factory()
+                : Thread.ofPlatform().name(name + "-", 0).daemon().factory();
     }
 }
@@ -0,0 +1,227 @@
+package ru.practicum.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.stats.dto.UriStartDto;
+import ru.practicum.stats.dto.ViewStatsDto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Кэш просмотров на стороне клиента: свежие значения отдаются сразу, устаревшие — тоже сразу,
+ * но с фоновым обновлением, а одинаковые одновременные промахи объединяются в один запрос.
+ */
+@Slf4j
+public class ViewsCache implements AutoCloseable {
+
+    private final long freshNanos;
+    private final long maxStaleNanos;
+    private final Map<Key, Entry> entries;
+    private final ReentrantLock entriesLock = new ReentrantLock();
+    private final Map<Key, CompletableFuture<List<ViewStatsDto>>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor;
+
+    public ViewsCache(int maxSize, long freshMs, long maxStaleMs, int refreshThreads, ThreadFactory threadFactory) {
+        this.freshNanos = TimeUnit.MILLISECONDS.toNanos(freshMs);
+        this.maxStaleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(freshMs, maxStaleMs));
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return super.size() > maxSize;
+            }
+        };
+        this.refreshExecutor = Executors.newFixedThreadPool(refreshThreads, threadFactory);
+    }
+
+    public List<ViewStatsDto> get(List<UriStartDto> uris, boolean unique,
+                                  Function<List<UriStartDto>, List<ViewStatsDto>> loader) {
+
+        Map<String, UriStartDto> byUri = new LinkedHashMap<>();
+
+        for (UriStartDto uri : uris) {
+            byUri.putIfAbsent(uri.getUri(), uri);
+        }
+
+        List<ViewStatsDto> result = new ArrayList<>();
+        List<UriStartDto> missing = new ArrayList<>();
+        List<UriStartDto> stale = new ArrayList<>();
+
+        long now = System.nanoTime();
+
+        entriesLock.lock();
+
+        try {
+            for (UriStartDto uri : byUri.values()) {
+                Entry entry = entries.get(new Key(uri.getUri(), uri.getStart(), unique));
+                long age = entry == null ? Long.MAX_VALUE : now - entry.loadedAt();
+
+                if (age >= maxStaleNanos) {
+                    missing.add(uri);
+                    continue;
+                }
+
+                result.addAll(entry.views());
+
+                if (age >= freshNanos) {
+                    stale.add(uri);
+                }
+            }
+        } finally {
+            entriesLock.unlock();
+        }
+
+        if (!missing.isEmpty()) {
+            result.addAll(loadMissing(missing, unique, loader));
+        }
+
+        if (!stale.isEmpty()) {
+            refresh(stale, unique, loader);
+        }
+
+        result.sort(Comparator.comparing(ViewStatsDto::getHits).reversed());
+
+        return result;
+    }
+
+    public int size() {
+        entriesLock.lock();
+
+        try {
+            return entries.size();
+        } finally {
+            entriesLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private List<ViewStatsDto> loadMissing(List<UriStartDto> missing, boolean unique,
+                                           Function<List<UriStartDto>, List<ViewStatsDto>> loader) {
+
+        Map<Key, CompletableFuture<List<ViewStatsDto>>> owned = new LinkedHashMap<>();
+        List<UriStartDto> toLoad = new ArrayList<>();
+        List<CompletableFuture<List<ViewStatsDto>>> waiting = new ArrayList<>();
+
+        for (UriStartDto uri : missing) {
+            Key key = new Key(uri.getUri(), uri.getStart(), unique);
+            CompletableFuture<List<ViewStatsDto>> future = new CompletableFuture<>();
+            CompletableFuture<List<ViewStatsDto>> existing = inFlight.putIfAbsent(key, future);
+
+            if (existing == null) {
+                owned.put(key, future);
+                toLoad.add(uri);
+            } else {
+                waiting.add(existing);
+            }
+        }
+
+        List<ViewStatsDto> result = new ArrayList<>();
+
+        if (!toLoad.isEmpty()) {
+            load(toLoad, loader, owned);
+            owned.values().forEach(future -> result.addAll(future.join()));
+        }
+
+        for (CompletableFuture<List<ViewStatsDto>> future : waiting) {
+            try {
+                result.addAll(future.join());
+            } catch (CompletionException exception) {
+                if (exception.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw exception;
+            }
+        }
+
+        return result;
+    }
+
+    private void refresh(List<UriStartDto> stale, boolean unique,
+                         Function<List<UriStartDto>, List<ViewStatsDto>> loader) {
+
+        Map<Key, CompletableFuture<List<ViewStatsDto>>> owned = new LinkedHashMap<>();
+        List<UriStartDto> toLoad = new ArrayList<>();
+
+        for (UriStartDto uri : stale) {
+            Key key = new Key(uri.getUri(), uri.getStart(), unique);
+            CompletableFuture<List<ViewStatsDto>> future = new CompletableFuture<>();
+
+            if (inFlight.putIfAbsent(key, future) == null) {
+                owned.put(key, future);
+                toLoad.add(uri);
+            }
+        }
+
+        if (toLoad.isEmpty()) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(toLoad, loader, owned);
+                } catch (RuntimeException exception) {
+                    log.warn("Не удалось обновить кэш просмотров: {}", exception.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            owned.forEach((key, future) -> {
+                future.cancel(false);
+                inFlight.remove(key, future);
+            });
+        }
+    }
+
+    private void load(List<UriStartDto> uris, Function<List<UriStartDto>, List<ViewStatsDto>> loader,
+                      Map<Key, CompletableFuture<List<ViewStatsDto>>> futures) {
+
+        try {
+            Map<String, List<ViewStatsDto>> byUri = new HashMap<>();
+
+            for (ViewStatsDto stats : loader.apply(uris)) {
+                byUri.computeIfAbsent(stats.getUri(), uri -> new ArrayList<>()).add(stats);
+            }
+
+            long loadedAt = System.nanoTime();
+
+            entriesLock.lock();
+
+            try {
+                futures.keySet().forEach(key ->
+                        entries.put(key, new Entry(List.copyOf(byUri.getOrDefault(key.uri(), List.of())), loadedAt)));
+            } finally {
+                entriesLock.unlock();
+            }
+
+            futures.forEach((key, future) -> future.complete(byUri.getOrDefault(key.uri(), List.of())));
+        } catch (RuntimeException exception) {
+            futures.values().forEach(future -> future.completeExceptionally(exception));
+            throw exception;
+        } finally {
+            futures.forEach(inFlight::remove);
+        }
+    }
+
+    private record Key(String uri, String start, boolean unique) {
+    }
+
+    private record Entry(List<ViewStatsDto> views, long loadedAt) {
+    }
+}
@@ -0,0 +1,187 @@
+package ru.practicum.stats;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+import ru.practicum.stats.dto.EndpointHitDto;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HitSenderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<Integer> batches = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private volatile boolean blocking;
+
+    private HttpServer server;
+
+    private RestClient restClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/hits", exchange -> {
+            EndpointHitDto[] hits = objectMapper.readValue(exchange.getRequestBody(), EndpointHitDto[].class);
+
+            if (blocking) {
+                awaitRelease();
+            }
+
+            if (failures.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                exchange.sendResponseHeaders(500, -1);
+            } else {
+                batches.add(hits.length);
+                exchange.sendResponseHeaders(201, -1);
+            }
+
+            exchange.close();
+        });
+        server.start();
+
+        restClient = RestClient.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void sendsHitsInBatchesAndFlushesOnClose() {
+
+        HitSender sender = sender(100, 10, HitOverflowPolicy.BLOCK);
+
+        for (int i = 0; i < 95; i++) {
+            sender.submit(hit(i));
+        }
+
+        sender.close();
+
+        assertThat(batches).allMatch(size -> size <= 10);
+        assertThat(sent()).isEqualTo(95);
+        assertThat(sender.getDropped()).isZero();
+    }
+
+    @Test
+    void dropsHitsWhenQueueIsFull() {
+
+        blocking = true;
+
+        HitSender sender = sender(5, 1, HitOverflowPolicy.DROP);
+
+        for (int i = 0; i < 50; i++) {
+            sender.submit(hit(i));
+        }
+
+        release.countDown();
+        sender.close();
+
+        assertThat(sender.getDropped()).isPositive();
+        assertThat(sent() + sender.getDropped()).isEqualTo(50);
+    }
+
+    @Test
+    void keepsSendingAfterServerError() {
+
+        failures.set(1);
+
+        HitSender sender = sender(100, 1, HitOverflowPolicy.BLOCK);
+
+        sender.submit(hit(1));
+        sender.submit(hit(2));
+        sender.submit(hit(3));
+
+        sender.close();
+
+        assertThat(sent()).isEqualTo(2);
+    }
+
+    @Test
+    void dropsHitsSubmittedAfterClose() {
+
+        HitSender sender = sender(100, 10, HitOverflowPolicy.BLOCK);
+
+        sender.close();
+        sender.submit(hit(1));
+
+        assertThat(sender.getDropped()).isEqualTo(1);
+        assertThat(sender.getQueued()).isZero();
+    }
+
+    @Test
+    void losesNoHitSubmittedDuringClose() throws InterruptedException {
+
+        HitSender sender = sender(10_000, 50, HitOverflowPolicy.BLOCK);
+
+        int writers = 4;
+
+        AtomicInteger submitted = new AtomicInteger();
+
+        CountDownLatch started = new CountDownLatch(writers);
+
+        Thread[] threads = new Thread[writers];
+
+        for (int w = 0; w < writers; w++) {
+            threads[w] = Thread.ofPlatform().start(() -> {
+                started.countDown();
+                for (int i = 0; i < 2_000; i++) {
+                    sender.submit(hit(i));
+                    submitted.incrementAndGet();
+                }
+            });
+        }
+
+        started.await();
+        sender.close();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(sender.getQueued()).isZero();
+        assertThat(sent() + sender.getDropped()).isEqualTo(submitted.get());
+    }
+
+    private HitSender sender(int capacity, int batchSize, HitOverflowPolicy policy) {
+        return new HitSender(restClient, capacity, batchSize, 20, policy, 1000, Thread.ofPlatform().factory());
+    }
+
+    private long sent() {
+        return batches.stream().mapToLong(Integer::longValue).sum();
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static EndpointHitDto hit(int number) {
+        EndpointHitDto hit = new EndpointHitDto();
+        hit.setApp("ewm-main-service");
+        hit.setUri("/events/" + number);
+        hit.setIp("192.168.0." + number % 256);
+        hit.setTimestamp("2024-01-01 00:00:00");
+        return hit;
+    }
+}
@@ -0,0 +1,205 @@
+package ru.practicum.stats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.stats.dto.UriStartDto;
+import ru.practicum.stats.dto.ViewStatsDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ViewsCacheTest {
+
+    private static final String START = "2024-01-01 00:00:00";
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong(10);
+
+    private ViewsCache cache;
+
+    @AfterEach
+    void tearDown() {
+        cache.close();
+    }
+
+    @Test
+    void servesFreshEntriesWithoutLoading() {
+
+        cache = cache(10, 60_000, 60_000);
+
+        assertThat(views(cache.get(uris("/events/1", "/events/2"), true, this::load))).containsExactly(10L, 10L);
+
+        hits.set(20);
+
+        assertThat(views(cache.get(uris("/events/1", "/events/2"), true, this::load))).containsExactly(10L, 10L);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void loadsOnlyMissingUris() {
+
+        cache = cache(10, 60_000, 60_000);
+
+        List<UriStartDto> requested = new ArrayList<>();
+
+        cache.get(uris("/events/1"), true, this::load);
+        cache.get(uris("/events/1", "/events/2"), true, batch -> {
+            requested.addAll(batch);
+            return load(batch);
+        });
+
+        assertThat(requested).extracting(UriStartDto::getUri).containsExactly("/events/2");
+    }
+
+    @Test
+    void keepsUniqueAndTotalViewsApart() {
+
+        cache = cache(10, 60_000, 60_000);
+
+        cache.get(uris("/events/1"), true, this::load);
+        cache.get(uris("/events/1"), false, this::load);
+
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void servesStaleEntryAndRefreshesInBackground() throws InterruptedException {
+
+        cache = cache(10, 0, 60_000);
+
+        cache.get(uris("/events/1"), true, this::load);
+
+        hits.set(20);
+
+        assertThat(views(cache.get(uris("/events/1"), true, this::load))).containsExactly(10L);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        List<Long> refreshed = List.of();
+
+        while (!refreshed.equals(List.of(20L)) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            refreshed = views(cache.get(uris("/events/1"), true, this::load));
+        }
+
+        assertThat(refreshed).containsExactly(20L);
+        assertThat(calls.get()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void reloadsEntryOlderThanMaxStale() {
+
+        cache = cache(10, 0, 0);
+
+        cache.get(uris("/events/1"), true, this::load);
+
+        hits.set(20);
+
+        assertThat(views(cache.get(uris("/events/1"), true, this::load))).containsExactly(20L);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntries() {
+
+        cache = cache(2, 60_000, 60_000);
+
+        cache.get(uris("/events/1"), true, this::load);
+        cache.get(uris("/events/2"), true, this::load);
+        cache.get(uris("/events/1"), true, this::load);
+        cache.get(uris("/events/3"), true, this::load);
+
+        assertThat(cache.size()).isEqualTo(2);
+
+        cache.get(uris("/events/1"), true, this::load);
+        assertThat(calls).hasValue(3);
+
+        cache.get(uris("/events/2"), true, this::load);
+        assertThat(calls).hasValue(4);
+    }
+
+    @Test
+    void coalescesConcurrentMisses() throws Exception {
+
+        cache = cache(10, 60_000, 60_000);
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Function<List<UriStartDto>, List<ViewStatsDto>> slowLoader = batch -> {
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return load(batch);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<List<ViewStatsDto>> first = executor.submit(() -> cache.get(uris("/events/1"), true, slowLoader));
+
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<List<ViewStatsDto>> second = executor.submit(() -> cache.get(uris("/events/1"), true, slowLoader));
+
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThat(views(first.get(5, TimeUnit.SECONDS))).containsExactly(10L);
+            assertThat(views(second.get(5, TimeUnit.SECONDS))).containsExactly(10L);
+            assertThat(calls).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void doesNotCacheFailedLoad() {
+
+        cache = cache(10, 60_000, 60_000);
+
+        assertThatThrownBy(() -> cache.get(uris("/events/1"), true, batch -> {
+            throw new IllegalStateException("stats unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.size()).isZero();
+        assertThat(views(cache.get(uris("/events/1"), true, this::load))).containsExactly(10L);
+    }
+
+    private ViewsCache cache(int maxSize, long freshMs, long maxStaleMs) {
+        return new ViewsCache(maxSize, freshMs, maxStaleMs, 1, Thread.ofPlatform().daemon().factory());
+    }
+
+    private List<ViewStatsDto> load(List<UriStartDto> batch) {
+        calls.incrementAndGet();
+        return batch.stream()
+                .map(uri -> new ViewStatsDto("ewm-main-service", uri.getUri(), hits.get()))
+                .toList();
+    }
+
+    private static List<UriStartDto> uris(String... uris) {
+        List<UriStartDto> result = new ArrayList<>();
+        for (String uri : uris) {
+            result.add(new UriStartDto(uri, START));
+        }
+        return result;
+    }
+
+    private static List<Long> views(List<ViewStatsDto> stats) {
+        return stats.stream().map(ViewStatsDto::getHits).toList();
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.stats.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ViewsRequestDto {
+
+    private List<UriStartDto> uris;
+
+    private String end;
+
+    private boolean unique;
+}
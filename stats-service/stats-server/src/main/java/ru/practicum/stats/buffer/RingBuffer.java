@@ -0,0 +1,100 @@
+package ru.practicum.stats.buffer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ограниченный кольцевой буфер без блокировок для многих писателей и одного читателя (схема Вьюкова).
+ * У каждой ячейки есть номер: писатель занимает позицию через CAS и публикует элемент, сдвигая номер
+ * ячейки на единицу; читатель освобождает ячейку, сдвигая номер на длину кольца.
+ */
+public final class RingBuffer<T> {
+
+    private final AtomicReferenceArray<T> elements;
+
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong head = new AtomicLong();
+
+    public RingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ёмкость буфера должна быть степенью двойки: " + capacity);
+        }
+
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public boolean offer(T element) {
+
+        long position = tail.get();
+
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Переносит в {@code target} до {@code maxElements} опубликованных элементов. Вызывается только из
+     * одного потока.
+     */
+    public int drainTo(List<T> target, int maxElements) {
+
+        long position = head.get();
+
+        int drained = 0;
+
+        while (drained < maxElements) {
+            int index = (int) (position & mask);
+
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+
+            target.add(elements.get(index));
+            elements.lazySet(index, null);
+            sequences.set(index, position + mask + 1);
+
+            position++;
+            drained++;
+        }
+
+        head.set(position);
+
+        return drained;
+    }
+
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
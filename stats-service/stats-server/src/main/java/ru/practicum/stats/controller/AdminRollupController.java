@@ -0,0 +1,26 @@
+package ru.practicum.stats.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.stats.service.HitRollupService;
+import ru.practicum.stats.service.HitSketchService;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/rollups")
+public class AdminRollupController {
+
+    private final HitRollupService hitRollupService;
+    private final HitSketchService hitSketchService;
+
+    @PostMapping("/rebuild")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void rebuild() {
+        hitRollupService.rebuild();
+        hitSketchService.rebuild();
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.stats.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -11,12 +12,14 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.stats.dto.EndpointHitDto;
 import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.dto.ViewsRequestDto;
 import ru.practicum.stats.service.StatsService;
 
 import java.util.List;
 
 @RestController
 @RequestMapping
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class StatsController {
 
@@ -28,11 +31,23 @@ public class StatsController {
         statsService.addHit(endpointHitDto);
     }
 
+    @PostMapping("/hits")
+    @ResponseStatus(HttpStatus.CREATED)
+    public void addHits(@RequestBody List<EndpointHitDto> endpointHitDtos) {
+        statsService.addHits(endpointHitDtos);
+    }
+
     @GetMapping("/stats")
     public List<ViewStatsDto> getStats(@RequestParam String start,
                                        @RequestParam String end,
                                        @RequestParam(required = false) List<String> uris,
-                                       @RequestParam(defaultValue = "false") boolean unique) {
-        return statsService.getStats(start, end, uris, unique);
+                                       @RequestParam(defaultValue = "false") boolean unique,
+                                       @RequestParam(defaultValue = "false") boolean approx) {
+        return statsService.getStats(start, end, uris, unique, approx);
+    }
+
+    @PostMapping("/stats/views")
+    public List<ViewStatsDto> getViews(@RequestBody ViewsRequestDto request) {
+        return statsService.getViews(request);
     }
 }
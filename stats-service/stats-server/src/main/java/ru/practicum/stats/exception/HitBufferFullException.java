@@ -0,0 +1,25 @@
+package ru.practicum.stats.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Буфер хитов заполнен выше допустимого уровня: клиенту отвечают 503 с заголовком {@code Retry-After}.
+ */
+public class HitBufferFullException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public HitBufferFullException(long retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Буфер хитов переполнен, повторите запрос позже.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return headers;
+    }
+}
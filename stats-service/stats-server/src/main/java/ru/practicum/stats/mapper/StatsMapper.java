@@ -4,24 +4,68 @@ import ru.practicum.stats.dto.EndpointHitDto;
 import ru.practicum.stats.dto.StatsConstants;
 import ru.practicum.stats.dto.ViewStatsDto;
 import ru.practicum.stats.model.EndpointHit;
+import ru.practicum.stats.model.HitApp;
+import ru.practicum.stats.model.HitUri;
 import ru.practicum.stats.repository.EndpointHitRepository;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public final class StatsMapper {
 
+    private static final Pattern IPV4 = Pattern.compile("(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})");
+
     private StatsMapper() {
     }
 
-    public static EndpointHit toEntity(EndpointHitDto dto) {
+    public static EndpointHit toEntity(EndpointHitDto dto, HitApp app, HitUri uri) {
         EndpointHit hit = new EndpointHit();
-        hit.setApp(dto.getApp());
-        hit.setUri(dto.getUri());
-        hit.setIp(dto.getIp());
+        hit.setApp(app);
+        hit.setUri(uri);
+        hit.setIp(toInetAddress(dto.getIp()));
         hit.setTimestamp(LocalDateTime.parse(dto.getTimestamp(), StatsConstants.DATE_TIME_FORMATTER));
         return hit;
     }
 
+    /**
+     * Разбирает только литералы адресов и никогда не обращается к DNS: IPv4 собирается из октетов,
+     * а строку с двоеточием {@link InetAddress#getByName} разбирает как литерал IPv6.
+     */
+    public static InetAddress toInetAddress(String ip) {
+        if (ip == null) {
+            throw new IllegalArgumentException("Invalid ip address: null");
+        }
+
+        try {
+            if (ip.indexOf(':') >= 0) {
+                return InetAddress.getByName(ip);
+            }
+
+            Matcher matcher = IPV4.matcher(ip);
+
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Invalid ip address: " + ip);
+            }
+
+            byte[] address = new byte[4];
+
+            for (int i = 0; i < address.length; i++) {
+                int octet = Integer.parseInt(matcher.group(i + 1));
+                if (octet > 255) {
+                    throw new IllegalArgumentException("Invalid ip address: " + ip);
+                }
+                address[i] = (byte) octet;
+            }
+
+            return InetAddress.getByAddress(address);
+        } catch (UnknownHostException ex) {
+            throw new IllegalArgumentException("Invalid ip address: " + ip, ex);
+        }
+    }
+
     public static ViewStatsDto toDto(EndpointHitRepository.ViewStatsProjection projection) {
         ViewStatsDto dto = new ViewStatsDto();
         dto.setApp(projection.getApp());
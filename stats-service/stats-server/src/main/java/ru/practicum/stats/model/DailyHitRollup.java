@@ -0,0 +1,14 @@
+package ru.practicum.stats.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.NoArgsConstructor;
+
+@Entity
+@NoArgsConstructor
+@Table(name = "hit_rollups_daily",
+        uniqueConstraints = @UniqueConstraint(name = "uq_hit_rollups_daily",
+                columnNames = {"app", "uri", "bucket_start"}))
+public class DailyHitRollup extends HitRollup {
+}
@@ -2,14 +2,20 @@ package ru.practicum.stats.model;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
+import java.net.InetAddress;
 import java.time.LocalDateTime;
 
 @Entity
@@ -23,14 +29,17 @@ public class EndpointHit {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false)
-    private String app;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "app_id", nullable = false)
+    private HitApp app;
 
-    @Column(nullable = false)
-    private String uri;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "uri_id", nullable = false)
+    private HitUri uri;
 
+    @JdbcTypeCode(SqlTypes.INET)
     @Column(nullable = false)
-    private String ip;
+    private InetAddress ip;
 
     @Column(name = "hit_timestamp", nullable = false)
     private LocalDateTime timestamp;
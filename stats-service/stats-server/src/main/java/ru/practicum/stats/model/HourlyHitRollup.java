@@ -0,0 +1,14 @@
+package ru.practicum.stats.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.NoArgsConstructor;
+
+@Entity
+@NoArgsConstructor
+@Table(name = "hit_rollups_hourly",
+        uniqueConstraints = @UniqueConstraint(name = "uq_hit_rollups_hourly",
+                columnNames = {"app", "uri", "bucket_start"}))
+public class HourlyHitRollup extends HitRollup {
+}
@@ -0,0 +1,31 @@
+package ru.practicum.stats.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+@Getter
+@RequiredArgsConstructor
+public enum PartitionInterval {
+    DAY(DateTimeFormatter.ofPattern("yyyyMMdd"), ChronoUnit.DAYS),
+    MONTH(DateTimeFormatter.ofPattern("yyyyMM"), ChronoUnit.MONTHS);
+
+    private final DateTimeFormatter suffixFormatter;
+    private final ChronoUnit unit;
+
+    public LocalDateTime floor(LocalDateTime time) {
+        LocalDateTime day = time.truncatedTo(ChronoUnit.DAYS);
+        return this == MONTH ? day.withDayOfMonth(1) : day;
+    }
+
+    public LocalDateTime next(LocalDateTime start) {
+        return start.plus(1, unit);
+    }
+
+    public String partitionName(String table, LocalDateTime start) {
+        return table + "_p" + suffixFormatter.format(start);
+    }
+}
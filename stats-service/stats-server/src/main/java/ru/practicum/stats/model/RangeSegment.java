@@ -0,0 +1,51 @@
+package ru.practicum.stats.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public record RangeSegment(RollupGranularity granularity, LocalDateTime start, LocalDateTime end) {
+
+    public boolean isRaw() {
+        return granularity == null;
+    }
+
+    public static List<RangeSegment> split(LocalDateTime start, LocalDateTime endExclusive) {
+
+        List<RangeSegment> segments = new ArrayList<>();
+
+        LocalDateTime hourFrom = RollupGranularity.HOUR.ceil(start);
+
+        LocalDateTime hourTo = RollupGranularity.HOUR.floor(endExclusive);
+
+        if (!hourFrom.isBefore(hourTo)) {
+            add(segments, null, start, endExclusive);
+            return segments;
+        }
+
+        add(segments, null, start, hourFrom);
+
+        LocalDateTime dayFrom = RollupGranularity.DAY.ceil(hourFrom);
+
+        LocalDateTime dayTo = RollupGranularity.DAY.floor(hourTo);
+
+        if (dayFrom.isBefore(dayTo)) {
+            add(segments, RollupGranularity.HOUR, hourFrom, dayFrom);
+            add(segments, RollupGranularity.DAY, dayFrom, dayTo);
+            add(segments, RollupGranularity.HOUR, dayTo, hourTo);
+        } else {
+            add(segments, RollupGranularity.HOUR, hourFrom, hourTo);
+        }
+
+        add(segments, null, hourTo, endExclusive);
+
+        return segments;
+    }
+
+    private static void add(List<RangeSegment> segments, RollupGranularity granularity,
+                            LocalDateTime start, LocalDateTime end) {
+        if (start.isBefore(end)) {
+            segments.add(new RangeSegment(granularity, start, end));
+        }
+    }
+}
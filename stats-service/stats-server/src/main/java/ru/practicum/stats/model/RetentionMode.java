@@ -0,0 +1,6 @@
+package ru.practicum.stats.model;
+
+public enum RetentionMode {
+    DROP,
+    DETACH
+}
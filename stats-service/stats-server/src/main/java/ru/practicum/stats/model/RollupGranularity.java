@@ -0,0 +1,28 @@
+package ru.practicum.stats.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@Getter
+@RequiredArgsConstructor
+public enum RollupGranularity {
+    HOUR("hit_rollups_hourly", "hit_sketches_hourly", "hour", ChronoUnit.HOURS),
+    DAY("hit_rollups_daily", "hit_sketches_daily", "day", ChronoUnit.DAYS);
+
+    private final String table;
+    private final String sketchTable;
+    private final String truncField;
+    private final ChronoUnit unit;
+
+    public LocalDateTime floor(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    public LocalDateTime ceil(LocalDateTime time) {
+        LocalDateTime floor = floor(time);
+        return floor.equals(time) ? floor : floor.plus(1, unit);
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.stats.reactive;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.web.reactive.config.BlockingExecutionConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Профиль {@code reactive}: сервер на Netty вместо Tomcat, а контроллеры с блокирующей сигнатурой
+ * (например, перестроение роллапов) выполняются на виртуальных потоках, не занимая event loop.
+ * Классы пакета компилируются только в Maven-профиле {@code reactive}, который добавляет WebFlux.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveStatsConfig implements WebFluxConfigurer {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Override
+    public void configureBlockingExecution(BlockingExecutionConfigurer configurer) {
+        configurer.setExecutor(new VirtualThreadTaskExecutor("stats-blocking-"));
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.stats.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.stats.dto.EndpointHitDto;
+import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.dto.ViewsRequestDto;
+
+import java.util.List;
+
+@RestController
+@RequestMapping
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveStatsController {
+
+    private final ReactiveStatsService statsService;
+
+    @PostMapping("/hit")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Void> addHit(@RequestBody Mono<EndpointHitDto> endpointHitDto) {
+        return statsService.addHit(endpointHitDto);
+    }
+
+    @PostMapping("/hits")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Void> addHits(@RequestBody Flux<EndpointHitDto> endpointHitDtos) {
+        return statsService.addHits(endpointHitDtos);
+    }
+
+    @GetMapping(value = "/stats", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ViewStatsDto> getStats(@RequestParam String start,
+                                       @RequestParam String end,
+                                       @RequestParam(required = false) List<String> uris,
+                                       @RequestParam(defaultValue = "false") boolean unique,
+                                       @RequestParam(defaultValue = "false") boolean approx) {
+        return statsService.getStats(start, end, uris, unique, approx);
+    }
+
+    @PostMapping(value = "/stats/views", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ViewStatsDto> getViews(@RequestBody ViewsRequestDto request) {
+        return statsService.getViews(request);
+    }
+}
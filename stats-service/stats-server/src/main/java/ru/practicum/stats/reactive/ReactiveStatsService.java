@@ -0,0 +1,20 @@
+package ru.practicum.stats.reactive;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.stats.dto.EndpointHitDto;
+import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.dto.ViewsRequestDto;
+
+import java.util.List;
+
+public interface ReactiveStatsService {
+
+    Mono<Void> addHit(Mono<EndpointHitDto> endpointHitDto);
+
+    Mono<Void> addHits(Flux<EndpointHitDto> endpointHitDtos);
+
+    Flux<ViewStatsDto> getStats(String start, String end, List<String> uris, boolean unique, boolean approx);
+
+    Flux<ViewStatsDto> getViews(ViewsRequestDto request);
+}
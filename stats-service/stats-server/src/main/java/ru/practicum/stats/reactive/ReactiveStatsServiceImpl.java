@@ -0,0 +1,70 @@
+package ru.practicum.stats.reactive;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.stats.dto.EndpointHitDto;
+import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.dto.ViewsRequestDto;
+import ru.practicum.stats.service.StatsService;
+
+import java.util.List;
+
+/**
+ * Неблокирующая обёртка над {@link StatsService} для профиля {@code reactive}. Запись и чтение идут
+ * через те же {@code HitBufferService} и {@code HitStorage}, что и в сервлетной сборке, а блокирующие
+ * вызовы выполняются на {@link Schedulers#boundedElastic()}, не занимая event loop. Хиты из тела
+ * {@code /hits} читаются по мере поступления и сохраняются пачками по {@code stats.reactive.batch-size}:
+ * следующая пачка запрашивается только после записи предыдущей, так что медленное хранилище
+ * притормаживает чтение сокета, а не копит хиты в памяти.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveStatsServiceImpl implements ReactiveStatsService {
+
+    private final StatsService statsService;
+
+    @Value("${stats.reactive.batch-size:2000}")
+    private int batchSize;
+
+    @Override
+    public Mono<Void> addHit(Mono<EndpointHitDto> endpointHitDto) {
+        return endpointHitDto
+                .flatMap(hit -> blocking(() -> statsService.addHit(hit)))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> addHits(Flux<EndpointHitDto> endpointHitDtos) {
+        return endpointHitDtos
+                .buffer(batchSize)
+                .concatMap(hits -> blocking(() -> statsService.addHits(hits)), 1)
+                .then();
+    }
+
+    @Override
+    public Flux<ViewStatsDto> getStats(String start, String end, List<String> uris, boolean unique,
+                                       boolean approx) {
+        return Mono.fromCallable(() -> statsService.getStats(start, end, uris, unique, approx))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(stats -> stats);
+    }
+
+    @Override
+    public Flux<ViewStatsDto> getViews(ViewsRequestDto request) {
+        return Mono.fromCallable(() -> statsService.getViews(request))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(views -> views);
+    }
+
+    private static Mono<Void> blocking(Runnable action) {
+        return Mono.fromRunnable(action)
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.stats.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.stats.model.EndpointHit;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class EndpointHitBatchRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_HIT = "INSERT INTO endpoint_hits (app_id, uri_id, ip, hit_timestamp) " +
+            "VALUES (?, ?, CAST(? AS inet), ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void saveAll(List<EndpointHit> hits) {
+        jdbcTemplate.batchUpdate(INSERT_HIT, hits, BATCH_SIZE, (ps, hit) -> {
+            ps.setInt(1, hit.getApp().getId());
+            ps.setInt(2, hit.getUri().getId());
+            ps.setString(3, hit.getIp().getHostAddress());
+            ps.setTimestamp(4, Timestamp.valueOf(hit.getTimestamp()));
+        });
+    }
+}
@@ -5,37 +5,62 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.stats.model.EndpointHit;
 
+import java.net.InetAddress;
 import java.time.LocalDateTime;
 import java.util.List;
 
-public interface EndpointHitRepository extends JpaRepository<EndpointHit, Long> {
+public interface EndpointHitRepository extends JpaRepository<EndpointHit, Long>, EndpointHitRepositoryCustom {
 
-    @Query("SELECT h.app AS app, " +
-            "       h.uri AS uri, " +
+    @Query("SELECT h.app.name AS app, " +
+            "       h.uri.name AS uri, " +
             "       COUNT(h.id) AS hits " +
             "FROM EndpointHit h " +
             "WHERE h.timestamp BETWEEN :start AND :end " +
-            "  AND (:urisEmpty = true OR h.uri IN :uris) " +
-            "GROUP BY h.app, h.uri " +
+            "  AND (:urisEmpty = true OR h.uri.name IN :uris) " +
+            "GROUP BY h.app.name, h.uri.name " +
             "ORDER BY hits DESC")
     List<ViewStatsProjection> findStats(@Param("start") LocalDateTime start,
                                         @Param("end") LocalDateTime end,
                                         @Param("uris") List<String> uris,
                                         @Param("urisEmpty") boolean urisEmpty);
 
-    @Query("SELECT h.app AS app, " +
-            "       h.uri AS uri, " +
+    @Query("SELECT h.app.name AS app, " +
+            "       h.uri.name AS uri, " +
             "       COUNT(DISTINCT h.ip) AS hits " +
             "FROM EndpointHit h " +
             "WHERE h.timestamp BETWEEN :start AND :end " +
-            "  AND (:urisEmpty = true OR h.uri IN :uris) " +
-            "GROUP BY h.app, h.uri " +
+            "  AND (:urisEmpty = true OR h.uri.name IN :uris) " +
+            "GROUP BY h.app.name, h.uri.name " +
             "ORDER BY hits DESC")
     List<ViewStatsProjection> findUniqueStats(@Param("start") LocalDateTime start,
                                               @Param("end") LocalDateTime end,
                                               @Param("uris") List<String> uris,
                                               @Param("urisEmpty") boolean urisEmpty);
 
+    @Query("SELECT h.app.name AS app, " +
+            "       h.uri.name AS uri, " +
+            "       COUNT(h.id) AS hits " +
+            "FROM EndpointHit h " +
+            "WHERE h.timestamp >= :start AND h.timestamp < :end " +
+            "  AND (:urisEmpty = true OR h.uri.name IN :uris) " +
+            "GROUP BY h.app.name, h.uri.name")
+    List<ViewStatsProjection> findStatsInRange(@Param("start") LocalDateTime start,
+                                               @Param("end") LocalDateTime endExclusive,
+                                               @Param("uris") List<String> uris,
+                                               @Param("urisEmpty") boolean urisEmpty);
+
+    @Query("SELECT DISTINCT h.app.name AS app, " +
+            "       h.uri.name AS uri, " +
+            "       h.ip AS ip " +
+            "FROM EndpointHit h " +
+            "WHERE h.timestamp >= :start AND h.timestamp < :end " +
+            "  AND h.ip IS NOT NULL " +
+            "  AND (:urisEmpty = true OR h.uri.name IN :uris)")
+    List<HitIpProjection> findIpsInRange(@Param("start") LocalDateTime start,
+                                         @Param("end") LocalDateTime endExclusive,
+                                         @Param("uris") List<String> uris,
+                                         @Param("urisEmpty") boolean urisEmpty);
+
     interface ViewStatsProjection {
         String getApp();
 
@@ -43,4 +68,12 @@ public interface EndpointHitRepository extends JpaRepository<EndpointHit, Long>
 
         Long getHits();
     }
+
+    interface HitIpProjection {
+        String getApp();
+
+        String getUri();
+
+        InetAddress getIp();
+    }
 }
@@ -0,0 +1,12 @@
+package ru.practicum.stats.repository;
+
+import ru.practicum.stats.dto.ViewStatsDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface EndpointHitRepositoryCustom {
+
+    List<ViewStatsDto> findViews(Map<String, LocalDateTime> startByUri, LocalDateTime end, boolean unique);
+}
@@ -0,0 +1,64 @@
+package ru.practicum.stats.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.model.EndpointHit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class EndpointHitRepositoryImpl implements EndpointHitRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<ViewStatsDto> findViews(Map<String, LocalDateTime> startByUri, LocalDateTime end, boolean unique) {
+
+        if (startByUri.isEmpty()) {
+            return List.of();
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<ViewStatsDto> query = cb.createQuery(ViewStatsDto.class);
+
+        Root<EndpointHit> hit = query.from(EndpointHit.class);
+
+        Path<String> app = hit.get("app").get("name");
+        Path<String> uri = hit.get("uri").get("name");
+        Path<LocalDateTime> timestamp = hit.get("timestamp");
+
+        Predicate[] ranges = startByUri.entrySet().stream()
+                .map(entry -> cb.and(
+                        cb.equal(uri, entry.getKey()),
+                        cb.greaterThanOrEqualTo(timestamp, entry.getValue())))
+                .toArray(Predicate[]::new);
+
+        LocalDateTime minStart = startByUri.values().stream()
+                .min(LocalDateTime::compareTo)
+                .orElseThrow();
+
+        query.where(cb.greaterThanOrEqualTo(timestamp, minStart),
+                cb.lessThanOrEqualTo(timestamp, end),
+                cb.or(ranges));
+
+        if (unique) {
+            query.select(cb.construct(ViewStatsDto.class, cb.nullLiteral(String.class), uri,
+                            cb.countDistinct(hit.get("ip"))))
+                    .groupBy(uri);
+        } else {
+            query.select(cb.construct(ViewStatsDto.class, app, uri, cb.count(hit)))
+                    .groupBy(app, uri);
+        }
+
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.stats.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@RequiredArgsConstructor
+public class HitDictionaryRepository {
+
+    public static final String APPS = "hit_apps";
+    public static final String URIS = "hit_uris";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int resolve(String table, String name) {
+
+        jdbcTemplate.update("INSERT INTO " + table + " (name) VALUES (?) ON CONFLICT (name) DO NOTHING", name);
+
+        Integer id = jdbcTemplate.queryForObject("SELECT id FROM " + table + " WHERE name = ?", Integer.class, name);
+
+        if (id == null) {
+            throw new IllegalStateException("Dictionary entry was not created: " + table + "." + name);
+        }
+
+        return id;
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.stats.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.stats.model.HitPartition;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Repository
+@RequiredArgsConstructor
+public class HitPartitionRepository {
+
+    public static final String TABLE = "endpoint_hits";
+
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final Pattern BOUNDS = Pattern.compile("FROM \\('([^']+)'\\) TO \\('([^']+)'\\)");
+    private static final DateTimeFormatter BOUND_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<HitPartition> findPartitions() {
+
+        String sql = "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bound " +
+                "FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = '" + TABLE + "'::regclass " +
+                "ORDER BY c.relname";
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> parse(rs.getString("relname"), rs.getString("bound")))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public Optional<LocalDateTime> findDefaultMinTimestamp() {
+
+        Timestamp min = jdbcTemplate.queryForObject(
+                "SELECT MIN(hit_timestamp) FROM " + DEFAULT_PARTITION, Timestamp.class);
+
+        return Optional.ofNullable(min).map(Timestamp::toLocalDateTime);
+    }
+
+    @Transactional
+    public void createPartition(String name, LocalDateTime from, LocalDateTime to) {
+
+        String range = "hit_timestamp >= '" + BOUND_FORMATTER.format(from) + "' " +
+                "AND hit_timestamp < '" + BOUND_FORMATTER.format(to) + "'";
+
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+
+        // Запись продолжается во время обслуживания: блокировка не даёт новым хитам интервала попасть в
+        // default-секцию до ATTACH, а перенос одним запросом не теряет строки между вставкой и удалением.
+        jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN SHARE ROW EXCLUSIVE MODE");
+
+        jdbcTemplate.execute("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " WHERE " + range + " RETURNING *) " +
+                "INSERT INTO " + name + " SELECT * FROM moved");
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + name + " " +
+                "FOR VALUES FROM ('" + BOUND_FORMATTER.format(from) + "') TO ('" + BOUND_FORMATTER.format(to) + "')");
+    }
+
+    public void dropPartition(String name) {
+        jdbcTemplate.execute("DROP TABLE " + quote(name));
+    }
+
+    public void detachPartition(String name) {
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + quote(name));
+    }
+
+    public int deleteFromDefaultBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE hit_timestamp < ?",
+                Timestamp.valueOf(cutoff));
+    }
+
+    private HitPartition parse(String name, String bound) {
+
+        Matcher matcher = BOUNDS.matcher(bound);
+
+        if (!matcher.find()) {
+            return null;
+        }
+
+        return new HitPartition(name,
+                LocalDateTime.parse(matcher.group(1), BOUND_FORMATTER),
+                LocalDateTime.parse(matcher.group(2), BOUND_FORMATTER));
+    }
+
+    private String quote(String name) {
+        return "\"" + name.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.stats.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.model.RollupGranularity;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class HitRollupRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void increment(RollupGranularity granularity, Map<RollupKey, Long> deltas) {
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        String sql = "INSERT INTO " + granularity.getTable() + " AS r (app, uri, bucket_start, hits) " +
+                "VALUES (:app, :uri, :bucketStart, :hits) " +
+                "ON CONFLICT (app, uri, bucket_start) DO UPDATE SET hits = r.hits + EXCLUDED.hits";
+
+        MapSqlParameterSource[] batch = deltas.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("app", entry.getKey().app())
+                        .addValue("uri", entry.getKey().uri())
+                        .addValue("bucketStart", Timestamp.valueOf(entry.getKey().bucketStart()))
+                        .addValue("hits", entry.getValue()))
+                .toArray(MapSqlParameterSource[]::new);
+
+        jdbcTemplate.batchUpdate(sql, batch);
+    }
+
+    public List<ViewStatsDto> findStats(RollupGranularity granularity, LocalDateTime start,
+                                        LocalDateTime endExclusive, List<String> uris) {
+
+        String sql = "SELECT app, uri, SUM(hits) AS hits " +
+                "FROM " + granularity.getTable() + " " +
+                "WHERE bucket_start >= :start AND bucket_start < :end " +
+                (uris.isEmpty() ? "" : "AND uri IN (:uris) ") +
+                "GROUP BY app, uri";
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("start", Timestamp.valueOf(start))
+                .addValue("end", Timestamp.valueOf(endExclusive))
+                .addValue("uris", uris);
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) ->
+                new ViewStatsDto(rs.getString("app"), rs.getString("uri"), rs.getLong("hits")));
+    }
+
+    public void rebuild(RollupGranularity granularity) {
+
+        String table = granularity.getTable();
+
+        jdbcTemplate.getJdbcOperations().execute("LOCK TABLE " + table + " IN EXCLUSIVE MODE");
+
+        jdbcTemplate.getJdbcOperations().execute("DELETE FROM " + table);
+
+        jdbcTemplate.getJdbcOperations().execute("INSERT INTO " + table + " (app, uri, bucket_start, hits) " +
+                "SELECT a.name, u.name, " +
+                "       date_trunc('" + granularity.getTruncField() + "', h.hit_timestamp), COUNT(*) " +
+                "FROM endpoint_hits h " +
+                "JOIN hit_apps a ON a.id = h.app_id " +
+                "JOIN hit_uris u ON u.id = h.uri_id " +
+                "GROUP BY 1, 2, 3");
+    }
+
+    public record RollupKey(String app, String uri, LocalDateTime bucketStart) implements Comparable<RollupKey> {
+
+        @Override
+        public int compareTo(RollupKey other) {
+            int result = app.compareTo(other.app);
+            if (result == 0) {
+                result = uri.compareTo(other.uri);
+            }
+            return result == 0 ? bucketStart.compareTo(other.bucketStart) : result;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package ru.practicum.stats.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.practicum.stats.mapper.StatsMapper;
+import ru.practicum.stats.model.AppUri;
+import ru.practicum.stats.model.RollupGranularity;
+import ru.practicum.stats.repository.HitRollupRepository.RollupKey;
+import ru.practicum.stats.sketch.HyperLogLog;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class HitSketchRepository {
+
+    private static final int REBUILD_FETCH_SIZE = 10_000;
+
+    private static final int MERGE_CHUNK_SIZE = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Сливает скетчи с сохранёнными одним чтением и одним пакетным upsert на порцию ключей. Сбросы разных
+     * экземпляров сервиса сериализуются транзакционной advisory-блокировкой таблицы, поэтому строка, которой
+     * ещё нет, не может быть вставлена дважды с потерей одного из скетчей.
+     */
+    public void merge(RollupGranularity granularity, Map<RollupKey, HyperLogLog> sketches) {
+
+        if (sketches.isEmpty()) {
+            return;
+        }
+
+        String table = granularity.getSketchTable();
+
+        jdbcTemplate.getJdbcOperations().execute("SELECT pg_advisory_xact_lock(hashtext('" + table + "'))");
+
+        String select = "SELECT app, uri, bucket_start, registers FROM " + table + " " +
+                "WHERE (app, uri, bucket_start) IN (:keys) " +
+                "FOR UPDATE";
+
+        String upsert = "INSERT INTO " + table + " (app, uri, bucket_start, registers) " +
+                "VALUES (:app, :uri, :bucketStart, :registers) " +
+                "ON CONFLICT (app, uri, bucket_start) DO UPDATE SET registers = EXCLUDED.registers";
+
+        List<RollupKey> keys = sketches.keySet().stream()
+                .sorted()
+                .toList();
+
+        for (int from = 0; from < keys.size(); from += MERGE_CHUNK_SIZE) {
+
+            List<RollupKey> chunk = keys.subList(from, Math.min(keys.size(), from + MERGE_CHUNK_SIZE));
+
+            List<Object[]> tuples = chunk.stream()
+                    .map(key -> new Object[]{key.app(), key.uri(), Timestamp.valueOf(key.bucketStart())})
+                    .toList();
+
+            jdbcTemplate.query(select, new MapSqlParameterSource("keys", tuples), (RowCallbackHandler) rs ->
+                    sketches.get(new RollupKey(rs.getString("app"), rs.getString("uri"),
+                                    rs.getTimestamp("bucket_start").toLocalDateTime()))
+                            .merge(HyperLogLog.fromBytes(rs.getBytes("registers"))));
+
+            jdbcTemplate.batchUpdate(upsert, chunk.stream()
+                    .map(key -> keyParams(key).addValue("registers", sketches.get(key).toBytes()))
+                    .toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    public void mergeInto(Map<AppUri, HyperLogLog> target, RollupGranularity granularity, LocalDateTime start,
+                          LocalDateTime endExclusive, List<String> uris) {
+
+        String sql = "SELECT app, uri, registers " +
+                "FROM " + granularity.getSketchTable() + " " +
+                "WHERE bucket_start >= :start AND bucket_start < :end " +
+                (uris.isEmpty() ? "" : "AND uri IN (:uris) ");
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("start", Timestamp.valueOf(start))
+                .addValue("end", Timestamp.valueOf(endExclusive))
+                .addValue("uris", uris);
+
+        jdbcTemplate.query(sql, params, (RowCallbackHandler) rs -> target
+                .computeIfAbsent(new AppUri(rs.getString("app"), rs.getString("uri")), key -> new HyperLogLog())
+                .merge(HyperLogLog.fromBytes(rs.getBytes("registers"))));
+    }
+
+    public void rebuild(RollupGranularity granularity) {
+
+        String table = granularity.getSketchTable();
+
+        JdbcOperations jdbc = jdbcTemplate.getJdbcOperations();
+
+        jdbc.execute("LOCK TABLE " + table + " IN EXCLUSIVE MODE");
+
+        jdbc.execute("DELETE FROM " + table);
+
+        String sql = "SELECT a.name AS app, u.name AS uri, " +
+                "       date_trunc('" + granularity.getTruncField() + "', h.hit_timestamp) AS bucket_start, " +
+                "       host(h.ip) AS ip " +
+                "FROM endpoint_hits h " +
+                "JOIN hit_apps a ON a.id = h.app_id " +
+                "JOIN hit_uris u ON u.id = h.uri_id " +
+                "WHERE h.ip IS NOT NULL " +
+                "GROUP BY 1, 2, 3, 4 " +
+                "ORDER BY 1, 2, 3";
+
+        String insert = "INSERT INTO " + table + " (app, uri, bucket_start, registers) " +
+                "VALUES (:app, :uri, :bucketStart, :registers)";
+
+        RebuildHandler handler = new RebuildHandler(insert);
+
+        jdbc.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(REBUILD_FETCH_SIZE);
+            return statement;
+        }, handler);
+
+        handler.flush();
+    }
+
+    private MapSqlParameterSource keyParams(RollupKey key) {
+        return new MapSqlParameterSource()
+                .addValue("app", key.app())
+                .addValue("uri", key.uri())
+                .addValue("bucketStart", Timestamp.valueOf(key.bucketStart()));
+    }
+
+    private final class RebuildHandler implements RowCallbackHandler {
+
+        private final String insert;
+
+        private RollupKey currentKey;
+
+        private HyperLogLog currentSketch;
+
+        private RebuildHandler(String insert) {
+            this.insert = insert;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            RollupKey key = new RollupKey(rs.getString("app"), rs.getString("uri"),
+                    rs.getTimestamp("bucket_start").toLocalDateTime());
+
+            if (!key.equals(currentKey)) {
+                flush();
+                currentKey = key;
+                currentSketch = new HyperLogLog();
+            }
+
+            currentSketch.add(StatsMapper.toInetAddress(rs.getString("ip")).getHostAddress());
+        }
+
+        private void flush() {
+            if (currentKey == null) {
+                return;
+            }
+
+            jdbcTemplate.update(insert, keyParams(currentKey).addValue("registers", currentSketch.toBytes()));
+
+            currentKey = null;
+            currentSketch = null;
+        }
+    }
+}
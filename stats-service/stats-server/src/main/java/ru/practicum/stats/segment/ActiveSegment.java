@@ -0,0 +1,308 @@
+package ru.practicum.stats.segment;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.stats.model.AppUri;
+import ru.practicum.stats.model.EndpointHit;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сегмент, в который ещё пишут. Каждая пачка сначала дописывается в журнал на диске, затем в колонки
+ * в памяти; после перезапуска журнал проигрывается заново. Пишет один поток под блокировкой хранилища,
+ * читать можно параллельно: новые строки становятся видны после обновления размера колонки.
+ */
+@Slf4j
+final class ActiveSegment implements Segment {
+
+    private static final int MAGIC = 0x45574D4C;
+
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    private final LocalDateTime bucketStart;
+
+    private final Map<AppUri, Column> columns = new ConcurrentHashMap<>();
+
+    private volatile long minTimestamp = Long.MAX_VALUE;
+
+    private volatile long maxTimestamp = Long.MIN_VALUE;
+
+    private volatile int rows;
+
+    private ActiveSegment(Path path, FileChannel channel, LocalDateTime bucketStart) {
+        this.path = path;
+        this.channel = channel;
+        this.bucketStart = bucketStart;
+    }
+
+    static ActiveSegment create(Path path, LocalDateTime bucketStart) throws IOException {
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putLong(SegmentQuery.epochSecond(bucketStart))
+                .flip();
+
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+
+        return new ActiveSegment(path, channel, bucketStart);
+    }
+
+    /**
+     * Проигрывает журнал и обрезает недописанную при падении запись. Возвращает {@code null}, если журнал
+     * пуст или не успел получить заголовок.
+     */
+    static ActiveSegment recover(Path path) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            Files.delete(path);
+            return null;
+        }
+
+        LocalDateTime bucketStart = SegmentQuery.fromEpochSecond(buffer.getLong());
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE);
+
+        ActiveSegment segment = new ActiveSegment(path, channel, bucketStart);
+
+        int valid = buffer.position();
+
+        try {
+            while (buffer.hasRemaining()) {
+                String app = readString(buffer);
+                String uri = readString(buffer);
+                byte[] address = new byte[buffer.get()];
+                buffer.get(address);
+                long timestamp = buffer.getLong();
+
+                segment.add(new AppUri(app, uri), InetAddress.getByAddress(address), timestamp);
+                valid = buffer.position();
+            }
+        } catch (RuntimeException | IOException ex) {
+            log.warn("Журнал {} обрезан до {} байт после недописанной записи", path.getFileName(), valid);
+        }
+
+        channel.truncate(valid);
+        channel.position(valid);
+
+        return segment;
+    }
+
+    /**
+     * Дописывает пачку в журнал, не трогая колонки. Хранилище сначала пишет журналы всех интервалов пачки
+     * и только потом вызывает {@link #apply}, чтобы ошибка на одном интервале не оставила в памяти часть
+     * пачки. Возвращает длину журнала до записи для {@link #rollback}.
+     */
+    long write(List<EndpointHit> hits, boolean fsync) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(hits));
+
+        for (EndpointHit hit : hits) {
+            writeString(buffer, hit.getApp().getName());
+            writeString(buffer, hit.getUri().getName());
+            byte[] address = hit.getIp().getAddress();
+            buffer.put((byte) address.length);
+            buffer.put(address);
+            buffer.putLong(SegmentQuery.epochSecond(hit.getTimestamp()));
+        }
+
+        buffer.flip();
+
+        long position = channel.position();
+
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException ex) {
+            rollback(position);
+            throw ex;
+        }
+
+        return position;
+    }
+
+    void apply(List<EndpointHit> hits) {
+        for (EndpointHit hit : hits) {
+            add(new AppUri(hit.getApp().getName(), hit.getUri().getName()), hit.getIp(),
+                    SegmentQuery.epochSecond(hit.getTimestamp()));
+        }
+    }
+
+    void rollback(long position) throws IOException {
+        channel.truncate(position);
+        channel.position(position);
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(path);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    Map<AppUri, Column> columns() {
+        return columns;
+    }
+
+    @Override
+    public LocalDateTime bucketStart() {
+        return bucketStart;
+    }
+
+    @Override
+    public long minTimestamp() {
+        return minTimestamp;
+    }
+
+    @Override
+    public long maxTimestamp() {
+        return maxTimestamp;
+    }
+
+    @Override
+    public void aggregate(SegmentQuery query, SegmentCounts counts) {
+
+        for (Map.Entry<AppUri, Column> entry : columns.entrySet()) {
+            AppUri key = entry.getKey();
+            Column column = entry.getValue();
+
+            long start = query.start(key.uri());
+
+            if (start >= query.end()) {
+                continue;
+            }
+
+            int size = column.size;
+            long[] timestamps = column.timestamps;
+            InetAddress[] ips = column.ips;
+
+            long count = 0;
+
+            for (int i = 0; i < size; i++) {
+                if (timestamps[i] >= start && timestamps[i] < query.end()) {
+                    if (query.unique()) {
+                        counts.addIp(key, ips[i]);
+                    } else {
+                        count++;
+                    }
+                }
+            }
+
+            if (count > 0) {
+                counts.add(key, count);
+            }
+        }
+    }
+
+    private void add(AppUri key, InetAddress ip, long timestamp) {
+        columns.computeIfAbsent(key, ignored -> new Column()).add(timestamp, ip);
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        rows = rows + 1;
+    }
+
+    private static int encodedSize(List<EndpointHit> hits) {
+
+        int size = 0;
+
+        for (EndpointHit hit : hits) {
+            size += Integer.BYTES * 2 + Byte.BYTES + Long.BYTES
+                    + utf8Length(hit.getApp().getName())
+                    + utf8Length(hit.getUri().getName())
+                    + hit.getIp().getAddress().length;
+        }
+
+        return size;
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static void writeString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Время и адреса хитов одной пары app/uri в порядке поступления. Массивы объявлены volatile: при
+     * расширении читатель получает либо старую копию, либо новую, и в обеих первые {@code size} строк
+     * заполнены.
+     */
+    static final class Column {
+
+        private volatile long[] timestamps = new long[16];
+
+        private volatile InetAddress[] ips = new InetAddress[16];
+
+        private volatile int size;
+
+        int size() {
+            return size;
+        }
+
+        long timestamp(int index) {
+            return timestamps[index];
+        }
+
+        InetAddress ip(int index) {
+            return ips[index];
+        }
+
+        private void add(long timestamp, InetAddress ip) {
+
+            int current = size;
+
+            if (current == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, current * 2);
+                ips = Arrays.copyOf(ips, current * 2);
+            }
+
+            timestamps[current] = timestamp;
+            ips[current] = ip;
+            size = current + 1;
+        }
+    }
+}
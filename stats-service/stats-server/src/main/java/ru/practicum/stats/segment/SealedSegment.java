@@ -0,0 +1,300 @@
+package ru.practicum.stats.segment;
+
+import ru.practicum.stats.model.AppUri;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Закрытый сегмент: неизменяемый файл, отображённый в память. Внутри словарь пар app/uri, словарь ip
+ * и две колонки — время относительно начала интервала и номер ip. Строки отсортированы по паре
+ * app/uri, а внутри пары по времени, поэтому число хитов за интервал — это разница двух бинарных поисков.
+ *
+ * <pre>
+ * int magic, int version
+ * long bucketStart, long minTimestamp, long maxTimestamp
+ * int rowCount, int keyCount, int ipCount
+ * keyCount × (int length, app) (int length, uri)
+ * ipCount × (byte length, address)
+ * int[keyCount + 1] offsets
+ * int[rowCount] timestamps
+ * int[rowCount] ipIds
+ * </pre>
+ */
+final class SealedSegment implements Segment {
+
+    private static final int MAGIC = 0x45574D53;
+
+    private static final int VERSION = 1;
+
+    private final Path path;
+
+    private final LocalDateTime bucketStart;
+
+    private final long base;
+
+    private final long minTimestamp;
+
+    private final long maxTimestamp;
+
+    private final AppUri[] keys;
+
+    private final InetAddress[] ips;
+
+    private final int[] offsets;
+
+    private final IntBuffer timestamps;
+
+    private final IntBuffer ipIds;
+
+    private SealedSegment(Path path, ByteBuffer buffer) throws IOException {
+
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Неизвестный формат сегмента: " + path.getFileName());
+        }
+
+        this.path = path;
+        this.base = buffer.getLong();
+        this.bucketStart = SegmentQuery.fromEpochSecond(base);
+        this.minTimestamp = buffer.getLong();
+        this.maxTimestamp = buffer.getLong();
+
+        int rowCount = buffer.getInt();
+
+        this.keys = new AppUri[buffer.getInt()];
+        this.ips = new InetAddress[buffer.getInt()];
+
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new AppUri(ActiveSegment.readString(buffer), ActiveSegment.readString(buffer));
+        }
+
+        for (int i = 0; i < ips.length; i++) {
+            byte[] address = new byte[buffer.get()];
+            buffer.get(address);
+            ips[i] = InetAddress.getByAddress(address);
+        }
+
+        this.offsets = new int[keys.length + 1];
+        buffer.asIntBuffer().get(offsets);
+        buffer.position(buffer.position() + offsets.length * Integer.BYTES);
+
+        this.timestamps = buffer.slice(buffer.position(), rowCount * Integer.BYTES).asIntBuffer();
+        buffer.position(buffer.position() + rowCount * Integer.BYTES);
+
+        this.ipIds = buffer.slice(buffer.position(), rowCount * Integer.BYTES).asIntBuffer();
+    }
+
+    static SealedSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new SealedSegment(path, buffer);
+        }
+    }
+
+    /**
+     * Записывает колонки открытого сегмента во временный файл и атомарно переименовывает его в {@code target}.
+     * Если запись не удалась, временный файл удаляется.
+     */
+    static SealedSegment write(ActiveSegment source, Path target) throws IOException {
+
+        long base = SegmentQuery.epochSecond(source.bucketStart());
+
+        List<AppUri> keys = new ArrayList<>(source.columns().keySet());
+        keys.sort(Comparator.comparing(AppUri::app).thenComparing(AppUri::uri));
+
+        Map<InetAddress, Integer> ipIds = new HashMap<>();
+        List<InetAddress> ips = new ArrayList<>();
+
+        long[][] rows = new long[keys.size()][];
+        int rowCount = 0;
+
+        for (int k = 0; k < keys.size(); k++) {
+            ActiveSegment.Column column = source.columns().get(keys.get(k));
+
+            long[] packed = new long[column.size()];
+
+            for (int i = 0; i < packed.length; i++) {
+                InetAddress ip = column.ip(i);
+                Integer ipId = ipIds.get(ip);
+
+                if (ipId == null) {
+                    ipId = ips.size();
+                    ipIds.put(ip, ipId);
+                    ips.add(ip);
+                }
+
+                packed[i] = (column.timestamp(i) - base) << Integer.SIZE | ipId;
+            }
+
+            Arrays.sort(packed);
+            rows[k] = packed;
+            rowCount += packed.length;
+        }
+
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try {
+            try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(base);
+                out.writeLong(source.minTimestamp());
+                out.writeLong(source.maxTimestamp());
+                out.writeInt(rowCount);
+                out.writeInt(keys.size());
+                out.writeInt(ips.size());
+
+                for (AppUri key : keys) {
+                    writeString(out, key.app());
+                    writeString(out, key.uri());
+                }
+
+                for (InetAddress ip : ips) {
+                    byte[] address = ip.getAddress();
+                    out.writeByte(address.length);
+                    out.write(address);
+                }
+
+                int offset = 0;
+
+                out.writeInt(offset);
+
+                for (long[] packed : rows) {
+                    offset += packed.length;
+                    out.writeInt(offset);
+                }
+
+                for (long[] packed : rows) {
+                    for (long row : packed) {
+                        out.writeInt((int) (row >> Integer.SIZE));
+                    }
+                }
+
+                for (long[] packed : rows) {
+                    for (long row : packed) {
+                        out.writeInt((int) row);
+                    }
+                }
+
+                out.flush();
+                file.getChannel().force(true);
+            }
+
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException suppressed) {
+                ex.addSuppressed(suppressed);
+            }
+            throw ex;
+        }
+
+        return open(target);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    @Override
+    public LocalDateTime bucketStart() {
+        return bucketStart;
+    }
+
+    @Override
+    public long minTimestamp() {
+        return minTimestamp;
+    }
+
+    @Override
+    public long maxTimestamp() {
+        return maxTimestamp;
+    }
+
+    @Override
+    public void aggregate(SegmentQuery query, SegmentCounts counts) {
+
+        int end = relative(query.end());
+
+        for (int k = 0; k < keys.length; k++) {
+            long start = query.start(keys[k].uri());
+
+            if (start >= query.end()) {
+                continue;
+            }
+
+            int from = lowerBound(offsets[k], offsets[k + 1], relative(start));
+            int to = lowerBound(from, offsets[k + 1], end);
+
+            if (from >= to) {
+                continue;
+            }
+
+            if (!query.unique()) {
+                counts.add(keys[k], to - from);
+                continue;
+            }
+
+            BitSet seen = new BitSet(ips.length);
+
+            for (int i = from; i < to; i++) {
+                seen.set(ipIds.get(i));
+            }
+
+            for (int ipId = seen.nextSetBit(0); ipId >= 0; ipId = seen.nextSetBit(ipId + 1)) {
+                counts.addIp(keys[k], ips[ipId]);
+            }
+        }
+    }
+
+    private int relative(long second) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, second - base));
+    }
+
+    private int lowerBound(int from, int to, int value) {
+
+        int low = from;
+        int high = to;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (timestamps.get(middle) < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.stats.segment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Хиты одного временного интервала. Время хранится в секундах от эпохи без учёта часового пояса,
+ * как и {@link LocalDateTime} в самих хитах.
+ */
+interface Segment {
+
+    LocalDateTime bucketStart();
+
+    long minTimestamp();
+
+    long maxTimestamp();
+
+    void aggregate(SegmentQuery query, SegmentCounts counts);
+
+    default boolean overlaps(SegmentQuery query) {
+        return maxTimestamp() >= query.minStart() && minTimestamp() < query.end();
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.stats.segment;
+
+import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.model.AppUri;
+import ru.practicum.stats.sketch.HyperLogLog;
+
+import java.net.InetAddress;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Частичный результат агрегации по одному или нескольким сегментам. Для точных уникальных просмотров
+ * хранятся сами адреса, чтобы при объединении сегментов один ip не посчитался дважды. При {@code approx}
+ * адреса сразу добавляются в {@link HyperLogLog}: память на ключ ограничена размером скетча, а объединение
+ * сегментов остаётся объединением скетчей.
+ */
+final class SegmentCounts {
+
+    private final boolean approx;
+
+    private final Map<AppUri, Long> hits = new HashMap<>();
+
+    private final Map<AppUri, Set<InetAddress>> ips = new HashMap<>();
+
+    private final Map<AppUri, HyperLogLog> sketches = new HashMap<>();
+
+    SegmentCounts(boolean approx) {
+        this.approx = approx;
+    }
+
+    void add(AppUri key, long count) {
+        hits.merge(key, count, Long::sum);
+    }
+
+    void addIp(AppUri key, InetAddress ip) {
+        if (approx) {
+            sketches.computeIfAbsent(key, ignored -> new HyperLogLog()).add(ip.getHostAddress());
+        } else {
+            ips.computeIfAbsent(key, ignored -> new HashSet<>()).add(ip);
+        }
+    }
+
+    SegmentCounts merge(SegmentCounts other) {
+
+        if (size() < other.size()) {
+            return other.merge(this);
+        }
+
+        other.hits.forEach(this::add);
+        other.ips.forEach((key, addresses) -> ips.merge(key, addresses, (left, right) -> {
+            left.addAll(right);
+            return left;
+        }));
+        other.sketches.forEach((key, sketch) -> sketches.merge(key, sketch, (left, right) -> {
+            left.merge(right);
+            return left;
+        }));
+
+        return this;
+    }
+
+    List<ViewStatsDto> toDtos(boolean unique) {
+
+        Map<AppUri, Long> counts = hits;
+
+        if (unique) {
+            counts = new HashMap<>();
+            for (Map.Entry<AppUri, Set<InetAddress>> entry : ips.entrySet()) {
+                counts.put(entry.getKey(), (long) entry.getValue().size());
+            }
+            for (Map.Entry<AppUri, HyperLogLog> entry : sketches.entrySet()) {
+                counts.put(entry.getKey(), entry.getValue().estimate());
+            }
+        }
+
+        return counts.entrySet().stream()
+                .map(entry -> new ViewStatsDto(entry.getKey().app(), entry.getKey().uri(), entry.getValue()))
+                .sorted(Comparator.comparing(ViewStatsDto::getHits).reversed())
+                .toList();
+    }
+
+    /**
+     * Уникальные адреса по uri без разбивки по приложениям: один ip, пришедший через два приложения,
+     * считается один раз. Поле {@code app} в результате пустое.
+     */
+    List<ViewStatsDto> toUriDtos() {
+
+        Map<String, Set<InetAddress>> byUri = new HashMap<>();
+
+        ips.forEach((key, addresses) -> byUri.computeIfAbsent(key.uri(), ignored -> new HashSet<>())
+                .addAll(addresses));
+
+        return byUri.entrySet().stream()
+                .map(entry -> new ViewStatsDto(null, entry.getKey(), (long) entry.getValue().size()))
+                .sorted(Comparator.comparing(ViewStatsDto::getHits).reversed())
+                .toList();
+    }
+
+    private int size() {
+        return hits.size() + ips.size() + sketches.size();
+    }
+}
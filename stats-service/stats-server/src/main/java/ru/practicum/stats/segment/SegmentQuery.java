@@ -0,0 +1,69 @@
+package ru.practicum.stats.segment;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запрос к сегментам: для каждого uri своё начало интервала, конец общий и не входит в интервал.
+ * {@code startByUri == null} означает «все uri с начала {@code minStart}». {@code approx} разрешает считать
+ * уникальные адреса приближённо, см. {@link SegmentCounts}.
+ */
+record SegmentQuery(Map<String, Long> startByUri, long minStart, long end, boolean unique, boolean approx) {
+
+    static SegmentQuery range(LocalDateTime start, LocalDateTime endExclusive, List<String> uris, boolean unique,
+                              boolean approx) {
+
+        long startSecond = epochSecond(start);
+
+        Map<String, Long> startByUri = null;
+
+        if (!uris.isEmpty()) {
+            startByUri = new HashMap<>();
+            for (String uri : uris) {
+                startByUri.put(uri, startSecond);
+            }
+        }
+
+        return new SegmentQuery(startByUri, startSecond, epochSecond(endExclusive), unique, approx);
+    }
+
+    static SegmentQuery views(Map<String, LocalDateTime> startByUri, LocalDateTime endExclusive, boolean unique) {
+
+        Map<String, Long> starts = new HashMap<>();
+
+        long minStart = Long.MAX_VALUE;
+
+        for (Map.Entry<String, LocalDateTime> entry : startByUri.entrySet()) {
+            long start = epochSecond(entry.getValue());
+            starts.put(entry.getKey(), start);
+            minStart = Math.min(minStart, start);
+        }
+
+        return new SegmentQuery(starts, minStart, epochSecond(endExclusive), unique, false);
+    }
+
+    static long epochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static LocalDateTime fromEpochSecond(long second) {
+        return LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Начало интервала для uri; если uri не запрошен, возвращается {@link #end()}, то есть пустой интервал.
+     */
+    long start(String uri) {
+
+        if (startByUri == null) {
+            return minStart;
+        }
+
+        Long start = startByUri.get(uri);
+
+        return start == null ? end : start;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.stats.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Кэш записей словаря app/uri ограниченного размера: при переполнении вытесняется запись, к которой дольше
+ * всего не обращались. Пути приходят от клиентов, поэтому без предела кэш рос бы с каждым новым uri.
+ * Загрузка идёт вне блокировки: одновременные промахи по одному имени разрешаются в один и тот же id.
+ */
+final class DictionaryCache<V> {
+
+    private final Map<String, V> entries;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    DictionaryCache(int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return super.size() > maxSize;
+            }
+        };
+    }
+
+    V get(String name) {
+
+        lock.lock();
+
+        try {
+            return entries.get(name);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    V put(String name, V value) {
+
+        lock.lock();
+
+        try {
+            entries.put(name, value);
+        } finally {
+            lock.unlock();
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.stats.service;
+
+import ru.practicum.stats.model.EndpointHit;
+
+public interface HitBufferService {
+
+    void add(EndpointHit hit);
+}
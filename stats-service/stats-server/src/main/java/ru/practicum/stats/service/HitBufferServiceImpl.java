@@ -0,0 +1,208 @@
+package ru.practicum.stats.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.practicum.stats.buffer.RingBuffer;
+import ru.practicum.stats.exception.HitBufferFullException;
+import ru.practicum.stats.model.EndpointHit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Отложенная запись одиночных хитов: запрос кладёт хит в кольцевой буфер и сразу получает ответ,
+ * а отдельный поток пишет накопленное пачками до {@code stats.hits.buffer.batch-size}. Выше
+ * {@code stats.hits.buffer.high-water-mark} новые хиты не принимаются, чтобы медленная база не
+ * превращалась в неограниченную очередь в памяти.
+ *
+ * <p>Буфер выключен по умолчанию ({@code stats.hits.buffer.enabled=false}). Во включённом режиме ответ 201
+ * означает, что хит принят, а не записан: он появится в {@code /stats} после ближайшей записи пачки, а
+ * пачка, не записанная за {@code stats.hits.buffer.max-attempts} попыток, отбрасывается и учитывается в
+ * метрике {@code stats.hits.buffer.dropped}. При остановке сервиса буфер дописывается до конца.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HitBufferServiceImpl implements HitBufferService {
+
+    private final HitStorage hitStorage;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${stats.hits.buffer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${stats.hits.buffer.capacity:65536}")
+    private int capacity;
+
+    @Value("${stats.hits.buffer.high-water-mark:57344}")
+    private int highWaterMark;
+
+    @Value("${stats.hits.buffer.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${stats.hits.buffer.flush-interval-ms:20}")
+    private long flushIntervalMs;
+
+    @Value("${stats.hits.buffer.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${stats.hits.buffer.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private RingBuffer<EndpointHit> buffer;
+    private Thread writer;
+    private Counter rejected;
+    private Counter dropped;
+    private DistributionSummary batchSizes;
+
+    /**
+     * {@link #add} проверяет {@link #running} и кладёт хит в буфер под блокировкой чтения, {@link #stop()}
+     * сбрасывает флаг под блокировкой записи: после этого в буфер ничего не попадает, и финальная запись
+     * буфера не пропускает хиты, принятые с ответом 201.
+     */
+    private final ReadWriteLock stopLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+
+        if (!enabled) {
+            return;
+        }
+
+        buffer = new RingBuffer<>(capacity);
+
+        Gauge.builder("stats.hits.buffer.depth", buffer, RingBuffer::size)
+                .description("Хиты, ожидающие записи в хранилище")
+                .register(meterRegistry);
+        rejected = Counter.builder("stats.hits.buffer.rejected")
+                .description("Хиты, отклонённые с ответом 503")
+                .register(meterRegistry);
+        dropped = Counter.builder("stats.hits.buffer.dropped")
+                .description("Принятые хиты, которые не удалось записать")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("stats.hits.buffer.batch.size")
+                .description("Размер пачек, записанных из буфера")
+                .register(meterRegistry);
+
+        running = true;
+        writer = Thread.ofPlatform().name("stats-hit-writer").daemon().start(this::run);
+    }
+
+    @Override
+    public void add(EndpointHit hit) {
+
+        if (!enabled) {
+            hitStorage.saveAll(List.of(hit));
+            return;
+        }
+
+        boolean accepted;
+
+        stopLock.readLock().lock();
+
+        try {
+            accepted = running && buffer.size() < highWaterMark && buffer.offer(hit);
+        } finally {
+            stopLock.readLock().unlock();
+        }
+
+        if (!accepted) {
+            rejected.increment();
+            throw new HitBufferFullException(retryAfterSeconds);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+
+        if (!enabled) {
+            return;
+        }
+
+        stopLock.writeLock().lock();
+
+        try {
+            running = false;
+        } finally {
+            stopLock.writeLock().unlock();
+        }
+
+        LockSupport.unpark(writer);
+
+        try {
+            writer.join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!writer.isAlive()) {
+            drain();
+        }
+    }
+
+    private void run() {
+        List<EndpointHit> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            buffer.drainTo(batch, batchSize);
+
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                continue;
+            }
+
+            write(batch);
+            batch.clear();
+        }
+
+        drain();
+    }
+
+    /**
+     * Дописывает всё, что осталось в буфере. Вызывается писателем при остановке и ещё раз из {@link #stop()},
+     * если писатель завершился раньше, чем дошёл до своей выгрузки.
+     */
+    private void drain() {
+        List<EndpointHit> batch = new ArrayList<>(batchSize);
+
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<EndpointHit> batch) {
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                hitStorage.saveAll(batch);
+                batchSizes.record(batch.size());
+                return;
+            } catch (RuntimeException exception) {
+                if (attempt >= maxAttempts) {
+                    dropped.increment(batch.size());
+                    log.error("Не удалось записать {} хитов из буфера: {}", batch.size(), exception.getMessage());
+                    return;
+                }
+
+                log.warn("Ошибка записи {} хитов из буфера, попытка {}: {}", batch.size(), attempt,
+                        exception.getMessage());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs * 10 * attempt));
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.stats.service;
+
+import ru.practicum.stats.model.HitApp;
+import ru.practicum.stats.model.HitUri;
+
+public interface HitDictionaryService {
+
+    HitApp getApp(String name);
+
+    HitUri getUri(String name);
+}
@@ -0,0 +1,62 @@
+package ru.practicum.stats.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.stats.model.HitApp;
+import ru.practicum.stats.model.HitUri;
+import ru.practicum.stats.repository.HitDictionaryRepository;
+
+@Service
+@RequiredArgsConstructor
+public class HitDictionaryServiceImpl implements HitDictionaryService {
+
+    private final HitDictionaryRepository hitDictionaryRepository;
+
+    @Value("${stats.dictionary.cache-size:10000}")
+    private int cacheSize;
+
+    private DictionaryCache<HitApp> apps;
+
+    private DictionaryCache<HitUri> uris;
+
+    @PostConstruct
+    public void init() {
+        apps = new DictionaryCache<>(cacheSize);
+        uris = new DictionaryCache<>(cacheSize);
+    }
+
+    @Override
+    public HitApp getApp(String name) {
+
+        HitApp app = apps.get(requireName(name, "app"));
+
+        if (app != null) {
+            return app;
+        }
+
+        return apps.put(name, new HitApp(hitDictionaryRepository.resolve(HitDictionaryRepository.APPS, name), name));
+    }
+
+    @Override
+    public HitUri getUri(String name) {
+
+        HitUri uri = uris.get(requireName(name, "uri"));
+
+        if (uri != null) {
+            return uri;
+        }
+
+        return uris.put(name, new HitUri(hitDictionaryRepository.resolve(HitDictionaryRepository.URIS, name), name));
+    }
+
+    private String requireName(String name, String field) {
+        if (name == null || name.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Не указан " + field + ".");
+        }
+        return name;
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.stats.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.practicum.stats.model.HitPartition;
+import ru.practicum.stats.model.PartitionInterval;
+import ru.practicum.stats.model.RetentionMode;
+import ru.practicum.stats.repository.HitPartitionRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HitPartitionServiceImpl implements HitPartitionService {
+
+    private final HitPartitionRepository hitPartitionRepository;
+
+    @Value("${stats.partitions.interval:MONTH}")
+    private PartitionInterval interval;
+
+    @Value("${stats.partitions.premake:2}")
+    private int premake;
+
+    @Value("${stats.partitions.retention-days:0}")
+    private int retentionDays;
+
+    @Value("${stats.partitions.retention-mode:DROP}")
+    private RetentionMode retentionMode;
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${stats.partitions.cron:0 0 * * * *}")
+    public synchronized void maintain() {
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = retentionDays > 0 ? now.minusDays(retentionDays) : null;
+
+        List<HitPartition> partitions = hitPartitionRepository.findPartitions();
+
+        if (cutoff != null) {
+            partitions = applyRetention(partitions, cutoff);
+        }
+
+        createMissing(partitions, now, cutoff);
+    }
+
+    private List<HitPartition> applyRetention(List<HitPartition> partitions, LocalDateTime cutoff) {
+
+        for (HitPartition partition : partitions) {
+
+            if (partition.to().isAfter(cutoff)) {
+                continue;
+            }
+
+            if (retentionMode == RetentionMode.DETACH) {
+                hitPartitionRepository.detachPartition(partition.name());
+            } else {
+                hitPartitionRepository.dropPartition(partition.name());
+            }
+
+            log.info("Partition {} removed by retention ({})", partition.name(), retentionMode);
+        }
+
+        int deleted = hitPartitionRepository.deleteFromDefaultBefore(cutoff);
+
+        if (deleted > 0) {
+            log.info("Deleted {} expired hits from default partition", deleted);
+        }
+
+        return partitions.stream()
+                .filter(partition -> partition.to().isAfter(cutoff))
+                .toList();
+    }
+
+    private void createMissing(List<HitPartition> partitions, LocalDateTime now, LocalDateTime cutoff) {
+
+        LocalDateTime from = interval.floor(hitPartitionRepository.findDefaultMinTimestamp()
+                .filter(min -> min.isBefore(now))
+                .orElse(now));
+
+        if (cutoff != null && from.isBefore(cutoff)) {
+            from = interval.floor(cutoff);
+        }
+
+        LocalDateTime last = interval.floor(now).plus(premake, interval.getUnit());
+
+        for (LocalDateTime start = from; !start.isAfter(last); start = interval.next(start)) {
+
+            LocalDateTime end = interval.next(start);
+
+            if (overlaps(partitions, start, end)) {
+                continue;
+            }
+
+            String name = interval.partitionName(HitPartitionRepository.TABLE, start);
+
+            hitPartitionRepository.createPartition(name, start, end);
+
+            log.info("Partition {} created for [{}, {})", name, start, end);
+        }
+    }
+
+    private boolean overlaps(List<HitPartition> partitions, LocalDateTime start, LocalDateTime end) {
+        return partitions.stream().anyMatch(partition -> partition.overlaps(start, end));
+    }
+}
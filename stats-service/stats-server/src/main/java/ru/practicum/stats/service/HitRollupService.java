@@ -0,0 +1,16 @@
+package ru.practicum.stats.service;
+
+import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.model.EndpointHit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface HitRollupService {
+
+    void record(List<EndpointHit> hits);
+
+    List<ViewStatsDto> countHits(LocalDateTime start, LocalDateTime endExclusive, List<String> uris);
+
+    void rebuild();
+}
@@ -0,0 +1,92 @@
+package ru.practicum.stats.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.mapper.StatsMapper;
+import ru.practicum.stats.model.AppUri;
+import ru.practicum.stats.model.EndpointHit;
+import ru.practicum.stats.model.RangeSegment;
+import ru.practicum.stats.model.RollupGranularity;
+import ru.practicum.stats.repository.EndpointHitRepository;
+import ru.practicum.stats.repository.HitRollupRepository;
+import ru.practicum.stats.repository.HitRollupRepository.RollupKey;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class HitRollupServiceImpl implements HitRollupService {
+
+    private final HitRollupRepository hitRollupRepository;
+    private final EndpointHitRepository endpointHitRepository;
+
+    @Override
+    @Transactional
+    public void record(List<EndpointHit> hits) {
+
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+
+            Map<RollupKey, Long> deltas = new HashMap<>();
+
+            for (EndpointHit hit : hits) {
+                RollupKey key = new RollupKey(hit.getApp().getName(), hit.getUri().getName(),
+                        granularity.floor(hit.getTimestamp()));
+                deltas.merge(key, 1L, Long::sum);
+            }
+
+            hitRollupRepository.increment(granularity, deltas);
+        }
+    }
+
+    @Override
+    public List<ViewStatsDto> countHits(LocalDateTime start, LocalDateTime endExclusive, List<String> uris) {
+
+        List<ViewStatsDto> parts = new ArrayList<>();
+
+        for (RangeSegment segment : RangeSegment.split(start, endExclusive)) {
+            if (segment.isRaw()) {
+                endpointHitRepository.findStatsInRange(segment.start(), segment.end(), uris, uris.isEmpty()).stream()
+                        .map(StatsMapper::toDto)
+                        .forEach(parts::add);
+            } else {
+                parts.addAll(hitRollupRepository.findStats(segment.granularity(), segment.start(), segment.end(),
+                        uris));
+            }
+        }
+
+        return merge(parts);
+    }
+
+    @Override
+    @Transactional
+    public void rebuild() {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            hitRollupRepository.rebuild(granularity);
+        }
+    }
+
+    private List<ViewStatsDto> merge(List<ViewStatsDto> parts) {
+
+        Map<AppUri, ViewStatsDto> merged = new LinkedHashMap<>();
+
+        for (ViewStatsDto part : parts) {
+            merged.merge(new AppUri(part.getApp(), part.getUri()), part,
+                    (left, right) -> new ViewStatsDto(left.getApp(), left.getUri(), left.getHits() + right.getHits()));
+        }
+
+        List<ViewStatsDto> result = new ArrayList<>(merged.values());
+
+        result.sort(Comparator.comparing(ViewStatsDto::getHits).reversed());
+
+        return result;
+    }
+}
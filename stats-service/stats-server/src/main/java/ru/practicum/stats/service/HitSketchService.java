@@ -0,0 +1,18 @@
+package ru.practicum.stats.service;
+
+import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.model.EndpointHit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface HitSketchService {
+
+    void record(List<EndpointHit> hits);
+
+    List<ViewStatsDto> countUnique(LocalDateTime start, LocalDateTime endExclusive, List<String> uris);
+
+    void flush();
+
+    void rebuild();
+}
@@ -0,0 +1,187 @@
+package ru.practicum.stats.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.model.AppUri;
+import ru.practicum.stats.model.EndpointHit;
+import ru.practicum.stats.model.RangeSegment;
+import ru.practicum.stats.model.RollupGranularity;
+import ru.practicum.stats.repository.EndpointHitRepository;
+import ru.practicum.stats.repository.HitRollupRepository.RollupKey;
+import ru.practicum.stats.repository.HitSketchRepository;
+import ru.practicum.stats.sketch.HyperLogLog;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Хиты не пишутся в таблицы скетчей по одному запросу: они сливаются в скетчи в памяти по ключу
+ * app/uri/корзина, а раз в {@code stats.sketches.flush-interval-ms} (или при {@code stats.sketches.max-pending}
+ * ключей) каждый скетч записывается одним upsert. Поэтому горячий uri блокирует свою строку раз за сброс,
+ * а не на каждый хит. Завершённые часы и дни в таблицах отстают от хитов не больше чем на интервал сброса.
+ * Если сброс не удался, скетчи возвращаются в ожидающие и пишутся следующим сбросом; при аварийной
+ * остановке несброшенное восстанавливается через {@link #rebuild()}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class HitSketchServiceImpl implements HitSketchService {
+
+    private final HitSketchRepository hitSketchRepository;
+    private final EndpointHitRepository endpointHitRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReadWriteLock pendingLock = new ReentrantReadWriteLock();
+
+    private Map<RollupGranularity, Map<RollupKey, HyperLogLog>> pending = newPending();
+
+    @Value("${stats.sketches.max-pending:10000}")
+    private int maxPending;
+
+    @Override
+    @Transactional
+    public void record(List<EndpointHit> hits) {
+
+        int size = 0;
+
+        pendingLock.readLock().lock();
+
+        try {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+
+                Map<RollupKey, HyperLogLog> sketches = pending.get(granularity);
+
+                for (EndpointHit hit : hits) {
+                    RollupKey key = new RollupKey(hit.getApp().getName(), hit.getUri().getName(),
+                            granularity.floor(hit.getTimestamp()));
+                    String ip = hit.getIp().getHostAddress();
+
+                    sketches.compute(key, (k, sketch) -> {
+                        HyperLogLog result = sketch == null ? new HyperLogLog() : sketch;
+                        result.add(ip);
+                        return result;
+                    });
+                }
+
+                size = Math.max(size, sketches.size());
+            }
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+
+        if (size >= maxPending) {
+            flush();
+        }
+    }
+
+    @Override
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${stats.sketches.flush-interval-ms:1000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void flush() {
+
+        Map<RollupGranularity, Map<RollupKey, HyperLogLog>> flushing;
+
+        pendingLock.writeLock().lock();
+
+        try {
+            flushing = pending;
+            pending = newPending();
+        } finally {
+            pendingLock.writeLock().unlock();
+        }
+
+        if (flushing.values().stream().allMatch(Map::isEmpty)) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> flushing.forEach(hitSketchRepository::merge));
+        } catch (RuntimeException exception) {
+            restore(flushing);
+            log.warn("Не удалось сбросить скетчи, они будут записаны при следующем сбросе: {}",
+                    exception.getMessage());
+            throw exception;
+        }
+    }
+
+    @Override
+    public List<ViewStatsDto> countUnique(LocalDateTime start, LocalDateTime endExclusive, List<String> uris) {
+
+        Map<AppUri, HyperLogLog> merged = new HashMap<>();
+
+        for (RangeSegment segment : RangeSegment.split(start, endExclusive)) {
+            if (segment.isRaw()) {
+                endpointHitRepository.findIpsInRange(segment.start(), segment.end(), uris, uris.isEmpty())
+                        .forEach(hit -> merged
+                                .computeIfAbsent(new AppUri(hit.getApp(), hit.getUri()), key -> new HyperLogLog())
+                                .add(hit.getIp().getHostAddress()));
+            } else {
+                hitSketchRepository.mergeInto(merged, segment.granularity(), segment.start(), segment.end(), uris);
+            }
+        }
+
+        return merged.entrySet().stream()
+                .map(entry -> new ViewStatsDto(entry.getKey().app(), entry.getKey().uri(),
+                        entry.getValue().estimate()))
+                .sorted(Comparator.comparing(ViewStatsDto::getHits).reversed())
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void rebuild() {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            hitSketchRepository.rebuild(granularity);
+        }
+    }
+
+    /**
+     * Возвращает несброшенные скетчи в ожидающие. Слияние скетчей идемпотентно, поэтому повторная запись
+     * того, что успело попасть в таблицу, ничего не искажает.
+     */
+    private void restore(Map<RollupGranularity, Map<RollupKey, HyperLogLog>> flushing) {
+
+        pendingLock.readLock().lock();
+
+        try {
+            flushing.forEach((granularity, sketches) -> {
+                Map<RollupKey, HyperLogLog> target = pending.get(granularity);
+
+                sketches.forEach((key, sketch) -> target.merge(key, sketch, (current, restored) -> {
+                    current.merge(restored);
+                    return current;
+                }));
+            });
+        } finally {
+            pendingLock.readLock().unlock();
+        }
+    }
+
+    private static Map<RollupGranularity, Map<RollupKey, HyperLogLog>> newPending() {
+
+        Map<RollupGranularity, Map<RollupKey, HyperLogLog>> result = new EnumMap<>(RollupGranularity.class);
+
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            result.put(granularity, new ConcurrentHashMap<>());
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.stats.service;
+
+import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.model.EndpointHit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Хранилище хитов. По умолчанию это таблица {@code endpoint_hits} ({@link JpaHitStorage}); при
+ * {@code stats.storage=segments} хиты пишутся в собственные файлы сегментов.
+ */
+public interface HitStorage {
+
+    void saveAll(List<EndpointHit> hits);
+
+    List<ViewStatsDto> findStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique,
+                                 boolean approx);
+
+    /**
+     * Просмотры uri, каждый со своего начала. Обычные просмотры возвращаются по парам app/uri. Уникальные
+     * считаются по uri сразу по всем приложениям, чтобы один ip из двух приложений не учитывался дважды;
+     * поле {@code app} в таких строках пустое.
+     */
+    List<ViewStatsDto> findViews(Map<String, LocalDateTime> startByUri, LocalDateTime end, boolean unique);
+}
@@ -0,0 +1,102 @@
+package ru.practicum.stats.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.mapper.StatsMapper;
+import ru.practicum.stats.model.EndpointHit;
+import ru.practicum.stats.repository.EndpointHitBatchRepository;
+import ru.practicum.stats.repository.EndpointHitRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@ConditionalOnProperty(name = "stats.storage", havingValue = "jpa", matchIfMissing = true)
+public class JpaHitStorage implements HitStorage {
+
+    private static final int VIEWS_CHUNK_SIZE = 500;
+
+    private final EndpointHitRepository endpointHitRepository;
+    private final EndpointHitBatchRepository endpointHitBatchRepository;
+    private final HitRollupService hitRollupService;
+    private final HitSketchService hitSketchService;
+
+    @Value("${stats.rollups.enabled:true}")
+    private boolean rollupsEnabled;
+
+    @Value("${stats.sketches.enabled:true}")
+    private boolean sketchesEnabled;
+
+    @Override
+    @Transactional
+    public void saveAll(List<EndpointHit> hits) {
+
+        if (hits.isEmpty()) {
+            return;
+        }
+
+        endpointHitBatchRepository.saveAll(hits);
+
+        if (rollupsEnabled) {
+            hitRollupService.record(hits);
+        }
+
+        if (sketchesEnabled) {
+            hitSketchService.record(hits);
+        }
+    }
+
+    @Override
+    public List<ViewStatsDto> findStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique,
+                                        boolean approx) {
+
+        if (unique && approx && sketchesEnabled) {
+            return hitSketchService.countUnique(start, end.plusSeconds(1), uris);
+        }
+
+        if (!unique && rollupsEnabled) {
+            return hitRollupService.countHits(start, end.plusSeconds(1), uris);
+        }
+
+        boolean urisEmpty = uris.isEmpty();
+
+        List<EndpointHitRepository.ViewStatsProjection> stats = unique
+                ? endpointHitRepository.findUniqueStats(start, end, uris, urisEmpty)
+                : endpointHitRepository.findStats(start, end, uris, urisEmpty);
+
+        return stats.stream()
+                .map(StatsMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    public List<ViewStatsDto> findViews(Map<String, LocalDateTime> startByUri, LocalDateTime end, boolean unique) {
+
+        List<ViewStatsDto> result = new ArrayList<>();
+
+        Map<String, LocalDateTime> chunk = new LinkedHashMap<>();
+
+        for (Map.Entry<String, LocalDateTime> entry : startByUri.entrySet()) {
+            chunk.put(entry.getKey(), entry.getValue());
+            if (chunk.size() == VIEWS_CHUNK_SIZE) {
+                result.addAll(endpointHitRepository.findViews(chunk, end, unique));
+                chunk = new LinkedHashMap<>();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            result.addAll(endpointHitRepository.findViews(chunk, end, unique));
+        }
+
+        return result;
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.stats.service;
 
 import ru.practicum.stats.dto.EndpointHitDto;
 import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.dto.ViewsRequestDto;
 
 import java.util.List;
 
@@ -9,5 +10,9 @@ public interface StatsService {
 
     void addHit(EndpointHitDto endpointHitDto);
 
-    List<ViewStatsDto> getStats(String start, String end, List<String> uris, boolean unique);
+    void addHits(List<EndpointHitDto> endpointHitDtos);
+
+    List<ViewStatsDto> getStats(String start, String end, List<String> uris, boolean unique, boolean approx);
+
+    List<ViewStatsDto> getViews(ViewsRequestDto request);
 }
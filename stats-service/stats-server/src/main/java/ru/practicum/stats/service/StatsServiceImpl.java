@@ -3,35 +3,55 @@ package ru.practicum.stats.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.stats.dto.EndpointHitDto;
 import ru.practicum.stats.dto.StatsConstants;
+import ru.practicum.stats.dto.UriStartDto;
 import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.dto.ViewsRequestDto;
 import ru.practicum.stats.mapper.StatsMapper;
-import ru.practicum.stats.repository.EndpointHitRepository;
+import ru.practicum.stats.model.EndpointHit;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class StatsServiceImpl implements StatsService {
 
-    private final EndpointHitRepository endpointHitRepository;
+    private final HitDictionaryService hitDictionaryService;
+    private final HitStorage hitStorage;
+    private final HitBufferService hitBufferService;
 
     @Override
-    @Transactional
     public void addHit(EndpointHitDto endpointHitDto) {
-        endpointHitRepository.save(StatsMapper.toEntity(endpointHitDto));
+        hitBufferService.add(toEntity(endpointHitDto));
     }
 
     @Override
-    public List<ViewStatsDto> getStats(String start, String end, List<String> uris, boolean unique) {
+    public void addHits(List<EndpointHitDto> endpointHitDtos) {
+
+        if (endpointHitDtos == null || endpointHitDtos.isEmpty()) {
+            return;
+        }
+
+        List<EndpointHit> hits = endpointHitDtos.stream()
+                .map(this::toEntity)
+                .toList();
+
+        hitStorage.saveAll(hits);
+    }
+
+    @Override
+    public List<ViewStatsDto> getStats(String start, String end, List<String> uris, boolean unique,
+                                       boolean approx) {
 
         LocalDateTime startTime = parseDateTime(start);
 
@@ -43,18 +63,52 @@ public class StatsServiceImpl implements StatsService {
 
         List<String> uriFilter = uris == null ? Collections.emptyList() : uris;
 
-        boolean urisEmpty = uriFilter.isEmpty();
+        return hitStorage.findStats(startTime, endTime, uriFilter, unique, approx);
+    }
 
-        List<EndpointHitRepository.ViewStatsProjection> stats = unique
-                ? endpointHitRepository.findUniqueStats(startTime, endTime, uriFilter, urisEmpty)
-                : endpointHitRepository.findStats(startTime, endTime, uriFilter, urisEmpty);
+    @Override
+    public List<ViewStatsDto> getViews(ViewsRequestDto request) {
 
-        return stats.stream()
-                .map(StatsMapper::toDto)
-                .toList();
+        if (request.getUris() == null || request.getUris().isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        LocalDateTime endTime = parseDateTime(request.getEnd());
+
+        Map<String, LocalDateTime> startByUri = new LinkedHashMap<>();
+
+        for (UriStartDto uriStart : request.getUris()) {
+            if (uriStart.getUri() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Не указан uri.");
+            }
+            startByUri.merge(uriStart.getUri(), parseDateTime(uriStart.getStart()),
+                    (left, right) -> left.isBefore(right) ? left : right);
+        }
+
+        List<ViewStatsDto> result = new ArrayList<>(hitStorage.findViews(startByUri, endTime,
+                request.isUnique()));
+
+        result.sort(Comparator.comparing(ViewStatsDto::getHits).reversed());
+
+        return result;
+    }
+
+    private EndpointHit toEntity(EndpointHitDto dto) {
+        try {
+            return StatsMapper.toEntity(dto, hitDictionaryService.getApp(dto.getApp()),
+                    hitDictionaryService.getUri(dto.getUri()));
+        } catch (DateTimeParseException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Не получилось отформатировать дату.", ex);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректный ip-адрес.", ex);
+        }
     }
 
     private LocalDateTime parseDateTime(String value) {
+        if (value == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Не указана дата.");
+        }
+
         try {
             return LocalDateTime.parse(value, StatsConstants.DATE_TIME_FORMATTER);
         } catch (DateTimeParseException ex) {
@@ -0,0 +1,225 @@
+package ru.practicum.stats.sketch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog с 2^14 регистрами по одному байту.
+ * Стандартная ошибка оценки 1.04 / sqrt(16384) ≈ 0.81%.
+ *
+ * <p>Пока ненулевых регистров не больше {@link #SPARSE_LIMIT}, скетч хранится разреженно: отсортированным
+ * списком пар «номер регистра, значение», по три байта на пару в {@link #toBytes()}. Так uri с десятком
+ * посетителей занимает десятки байт, а не 16 КБ. Оценка от формы не зависит: отсутствующие регистры
+ * считаются нулевыми. Плотная форма сериализуется массивом ровно из {@link #REGISTERS} байт, как и раньше,
+ * разреженная начинается с байта {@code 1} и всегда короче.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 14;
+
+    public static final int REGISTERS = 1 << PRECISION;
+
+    static final int SPARSE_LIMIT = REGISTERS / 16;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private static final byte SPARSE_FORMAT = 1;
+
+    private static final int SPARSE_ENTRY_BYTES = 3;
+
+    private static final int RANK_BITS = 8;
+
+    private static final int RANK_MASK = (1 << RANK_BITS) - 1;
+
+    private byte[] registers;
+
+    private int[] entries;
+
+    private int size;
+
+    public HyperLogLog() {
+        this.entries = new int[4];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    private HyperLogLog(int[] entries, int size) {
+        this.entries = entries;
+        this.size = size;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+
+        if (bytes.length == REGISTERS) {
+            return new HyperLogLog(bytes.clone());
+        }
+
+        int count = (bytes.length - 1) / SPARSE_ENTRY_BYTES;
+
+        if (bytes.length == 0 || bytes[0] != SPARSE_FORMAT || (bytes.length - 1) % SPARSE_ENTRY_BYTES != 0
+                || count > SPARSE_LIMIT) {
+            throw new IllegalArgumentException("Неверный размер скетча: " + bytes.length);
+        }
+
+        int[] entries = new int[Math.max(count, 4)];
+
+        for (int i = 0; i < count; i++) {
+            int offset = 1 + i * SPARSE_ENTRY_BYTES;
+            int entry = (bytes[offset] & 0xFF) << 16 | (bytes[offset + 1] & 0xFF) << 8 | bytes[offset + 2] & 0xFF;
+
+            if ((entry >>> RANK_BITS) >= REGISTERS || (entry & RANK_MASK) == 0
+                    || i > 0 && (entry >>> RANK_BITS) <= (entries[i - 1] >>> RANK_BITS)) {
+                throw new IllegalArgumentException("Повреждённый разреженный скетч");
+            }
+
+            entries[i] = entry;
+        }
+
+        return new HyperLogLog(entries, count);
+    }
+
+    public byte[] toBytes() {
+
+        if (registers != null) {
+            return registers.clone();
+        }
+
+        byte[] bytes = new byte[1 + size * SPARSE_ENTRY_BYTES];
+        bytes[0] = SPARSE_FORMAT;
+
+        for (int i = 0; i < size; i++) {
+            int offset = 1 + i * SPARSE_ENTRY_BYTES;
+            bytes[offset] = (byte) (entries[i] >>> 16);
+            bytes[offset + 1] = (byte) (entries[i] >>> 8);
+            bytes[offset + 2] = (byte) entries[i];
+        }
+
+        return bytes;
+    }
+
+    boolean isSparse() {
+        return registers == null;
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << PRECISION), Long.SIZE - PRECISION) + 1;
+        update(index, rank);
+    }
+
+    public void merge(HyperLogLog other) {
+
+        if (other.registers == null) {
+            for (int i = 0; i < other.size; i++) {
+                update(other.entries[i] >>> RANK_BITS, other.entries[i] & RANK_MASK);
+            }
+            return;
+        }
+
+        toDense();
+
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+
+        if (registers == null) {
+            for (int i = 0; i < size; i++) {
+                sum += 1.0 / (1L << (entries[i] & RANK_MASK));
+            }
+
+            zeros = REGISTERS - size;
+            sum += zeros;
+        } else {
+            for (byte register : registers) {
+                sum += 1.0 / (1L << register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+        }
+
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+
+        return Math.round(estimate);
+    }
+
+    private void update(int index, int rank) {
+
+        if (registers != null) {
+            if (rank > registers[index]) {
+                registers[index] = (byte) rank;
+            }
+            return;
+        }
+
+        int position = -Arrays.binarySearch(entries, 0, size, index << RANK_BITS) - 1;
+
+        if (position < size && entries[position] >>> RANK_BITS == index) {
+            if (rank > (entries[position] & RANK_MASK)) {
+                entries[position] = index << RANK_BITS | rank;
+            }
+            return;
+        }
+
+        if (size == SPARSE_LIMIT) {
+            toDense();
+            registers[index] = (byte) rank;
+            return;
+        }
+
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, Math.min(SPARSE_LIMIT, size * 2));
+        }
+
+        System.arraycopy(entries, position, entries, position + 1, size - position);
+        entries[position] = index << RANK_BITS | rank;
+        size++;
+    }
+
+    private void toDense() {
+
+        if (registers != null) {
+            return;
+        }
+
+        registers = new byte[REGISTERS];
+
+        for (int i = 0; i < size; i++) {
+            registers[entries[i] >>> RANK_BITS] = (byte) (entries[i] & RANK_MASK);
+        }
+
+        entries = null;
+        size = 0;
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
@@ -0,0 +1,43 @@
+CREATE TABLE IF NOT EXISTS endpoint_hits (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    app           VARCHAR(255) NOT NULL,
+    uri           VARCHAR(255) NOT NULL,
+    ip            VARCHAR(255) NOT NULL,
+    hit_timestamp TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS hit_rollups_hourly (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    app          VARCHAR(255) NOT NULL,
+    uri          VARCHAR(255) NOT NULL,
+    bucket_start TIMESTAMP(6) NOT NULL,
+    hits         BIGINT       NOT NULL,
+    CONSTRAINT uq_hit_rollups_hourly UNIQUE (app, uri, bucket_start)
+);
+
+CREATE TABLE IF NOT EXISTS hit_rollups_daily (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    app          VARCHAR(255) NOT NULL,
+    uri          VARCHAR(255) NOT NULL,
+    bucket_start TIMESTAMP(6) NOT NULL,
+    hits         BIGINT       NOT NULL,
+    CONSTRAINT uq_hit_rollups_daily UNIQUE (app, uri, bucket_start)
+);
+
+CREATE TABLE IF NOT EXISTS hit_sketches_hourly (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    app          VARCHAR(255) NOT NULL,
+    uri          VARCHAR(255) NOT NULL,
+    bucket_start TIMESTAMP(6) NOT NULL,
+    registers    BYTEA        NOT NULL,
+    CONSTRAINT uq_hit_sketches_hourly UNIQUE (app, uri, bucket_start)
+);
+
+CREATE TABLE IF NOT EXISTS hit_sketches_daily (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    app          VARCHAR(255) NOT NULL,
+    uri          VARCHAR(255) NOT NULL,
+    bucket_start TIMESTAMP(6) NOT NULL,
+    registers    BYTEA        NOT NULL,
+    CONSTRAINT uq_hit_sketches_daily UNIQUE (app, uri, bucket_start)
+);
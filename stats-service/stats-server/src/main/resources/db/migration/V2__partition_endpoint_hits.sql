@@ -0,0 +1,24 @@
+ALTER TABLE endpoint_hits RENAME TO endpoint_hits_legacy;
+
+CREATE SEQUENCE endpoint_hits_seq;
+
+CREATE TABLE endpoint_hits (
+    id            BIGINT       NOT NULL DEFAULT nextval('endpoint_hits_seq'),
+    app           VARCHAR(255) NOT NULL,
+    uri           VARCHAR(255) NOT NULL,
+    ip            VARCHAR(255) NOT NULL,
+    hit_timestamp TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, hit_timestamp)
+) PARTITION BY RANGE (hit_timestamp);
+
+ALTER SEQUENCE endpoint_hits_seq OWNED BY endpoint_hits.id;
+
+CREATE TABLE endpoint_hits_default PARTITION OF endpoint_hits DEFAULT;
+
+INSERT INTO endpoint_hits (id, app, uri, ip, hit_timestamp)
+SELECT id, app, uri, ip, hit_timestamp
+FROM endpoint_hits_legacy;
+
+SELECT setval('endpoint_hits_seq', COALESCE((SELECT MAX(id) FROM endpoint_hits_legacy), 0) + 1, false);
+
+DROP TABLE endpoint_hits_legacy;
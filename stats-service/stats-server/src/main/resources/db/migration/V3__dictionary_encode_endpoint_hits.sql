@@ -0,0 +1,40 @@
+CREATE TABLE hit_apps (
+    id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT uq_hit_apps_name UNIQUE (name)
+);
+
+CREATE TABLE hit_uris (
+    id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    CONSTRAINT uq_hit_uris_name UNIQUE (name)
+);
+
+INSERT INTO hit_apps (name)
+SELECT DISTINCT app
+FROM endpoint_hits;
+
+INSERT INTO hit_uris (name)
+SELECT DISTINCT uri
+FROM endpoint_hits;
+
+ALTER TABLE endpoint_hits
+    ADD COLUMN app_id INTEGER,
+    ADD COLUMN uri_id INTEGER;
+
+UPDATE endpoint_hits h
+SET app_id = a.id,
+    uri_id = u.id
+FROM hit_apps a,
+     hit_uris u
+WHERE a.name = h.app
+  AND u.name = h.uri;
+
+ALTER TABLE endpoint_hits
+    ALTER COLUMN app_id SET NOT NULL,
+    ALTER COLUMN uri_id SET NOT NULL,
+    DROP COLUMN app,
+    DROP COLUMN uri,
+    ALTER COLUMN ip TYPE INET USING ip::inet,
+    ADD CONSTRAINT fk_endpoint_hits_app FOREIGN KEY (app_id) REFERENCES hit_apps (id),
+    ADD CONSTRAINT fk_endpoint_hits_uri FOREIGN KEY (uri_id) REFERENCES hit_uris (id);
@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS idx_endpoint_hits_timestamp_brin
+    ON endpoint_hits USING BRIN (hit_timestamp);
+
+CREATE INDEX IF NOT EXISTS idx_endpoint_hits_uri_timestamp
+    ON endpoint_hits (uri_id, hit_timestamp) INCLUDE (app_id, ip, id);
@@ -0,0 +1,11 @@
+-- Хиты, чей ip не удалось разобрать при переходе на inet, хранят NULL: они учитываются в общем числе
+-- просмотров и не учитываются в уникальных. На базах без таких строк столбец тоже становится
+-- необязательным, чтобы схема везде была одинаковой.
+ALTER TABLE endpoint_hits
+    ALTER COLUMN ip DROP NOT NULL;
+
+-- Промежуточная редакция V3 записывала такие ip как 0.0.0.0 и склеивала их в одного посетителя.
+-- Клиент с этим адресом прийти не может, поэтому такие строки — те самые неразобранные ip.
+UPDATE endpoint_hits
+SET ip = NULL
+WHERE ip = '0.0.0.0';
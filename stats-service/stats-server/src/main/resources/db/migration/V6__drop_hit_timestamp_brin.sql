@@ -0,0 +1,4 @@
+-- Замер bench/hit-indexes.sql показал, что планировщик не выбирает BRIN по hit_timestamp ни для одного
+-- запроса статистики: без покрывающего индекса он предпочитает последовательное сканирование секции.
+-- Индекс на секционированной таблице удаляется вместе с индексами всех секций.
+DROP INDEX IF EXISTS idx_endpoint_hits_timestamp_brin;
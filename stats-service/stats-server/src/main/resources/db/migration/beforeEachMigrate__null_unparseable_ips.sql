@@ -0,0 +1,35 @@
+-- До V3 ip хранился строкой без проверки, и одна строка, которая не приводится к inet, обрывает V3.
+-- Поэтому перед каждой миграцией, пока endpoint_hits уже секционирована (V2), но ip ещё строка (до V3),
+-- такие ip заменяются на NULL: хит остаётся в общем счёте, но не считается посетителем. В остальных
+-- состояниях схемы скрипт ничего не делает. Это колбэк Flyway, а не миграция, потому что исправление
+-- должно успеть до V3, уже применённой на части баз.
+DO
+$$
+DECLARE
+    legacy_ip TEXT;
+BEGIN
+    IF NOT EXISTS (SELECT 1
+                   FROM information_schema.columns c
+                   JOIN pg_class t ON t.relname = c.table_name AND t.relnamespace = current_schema()::regnamespace
+                   WHERE c.table_schema = current_schema()
+                     AND c.table_name = 'endpoint_hits'
+                     AND c.column_name = 'ip'
+                     AND c.data_type = 'character varying'
+                     AND t.relkind = 'p') THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE endpoint_hits
+        ALTER COLUMN ip DROP NOT NULL;
+
+    FOR legacy_ip IN SELECT DISTINCT ip FROM endpoint_hits WHERE ip IS NOT NULL
+        LOOP
+            BEGIN
+                PERFORM legacy_ip::inet;
+            EXCEPTION
+                WHEN invalid_text_representation THEN
+                    UPDATE endpoint_hits SET ip = NULL WHERE ip = legacy_ip;
+            END;
+        END LOOP;
+END
+$$;
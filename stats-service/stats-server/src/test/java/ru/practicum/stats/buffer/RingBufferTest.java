@@ -0,0 +1,118 @@
+package ru.practicum.stats.buffer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RingBufferTest {
+
+    @Test
+    void rejectsCapacityThatIsNotPowerOfTwo() {
+        assertThatThrownBy(() -> new RingBuffer<Integer>(6)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RingBuffer<Integer>(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsOfferWhenFullAndAcceptsAfterDrain() {
+
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        List<Integer> drained = new ArrayList<>();
+
+        assertThat(buffer.drainTo(drained, 1)).isEqualTo(1);
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.offer(5)).isFalse();
+
+        assertThat(buffer.drainTo(drained, 10)).isEqualTo(4);
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void keepsOrderAcrossManyWrapArounds() {
+
+        RingBuffer<Integer> buffer = new RingBuffer<>(8);
+
+        List<Integer> drained = new ArrayList<>();
+
+        int next = 0;
+
+        buffer.offer(next++);
+
+        for (int round = 0; round < 100; round++) {
+            int batch = 1 + round % 7;
+            for (int i = 0; i < batch; i++) {
+                assertThat(buffer.offer(next++)).isTrue();
+            }
+            assertThat(buffer.drainTo(drained, batch)).isEqualTo(batch);
+        }
+
+        buffer.drainTo(drained, Integer.MAX_VALUE);
+
+        assertThat(drained).containsExactlyElementsOf(IntStream.range(0, next).boxed().toList());
+    }
+
+    @Test
+    void drainsNothingFromEmptyBuffer() {
+
+        RingBuffer<Integer> buffer = new RingBuffer<>(2);
+
+        List<Integer> drained = new ArrayList<>();
+
+        assertThat(buffer.drainTo(drained, 10)).isZero();
+        assertThat(drained).isEmpty();
+    }
+
+    @Test
+    void losesNothingWithConcurrentWriters() throws InterruptedException {
+
+        RingBuffer<Integer> buffer = new RingBuffer<>(64);
+
+        int writers = 4;
+        int perWriter = 5_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+
+        CountDownLatch done = new CountDownLatch(writers);
+
+        for (int w = 0; w < writers; w++) {
+            int first = w * perWriter;
+            executor.execute(() -> {
+                for (int i = first; i < first + perWriter; i++) {
+                    while (!buffer.offer(i)) {
+                        Thread.yield();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        List<Integer> drained = new ArrayList<>();
+
+        while (done.getCount() > 0 || buffer.size() > 0) {
+            buffer.drainTo(drained, 16);
+        }
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(drained).hasSize(writers * perWriter);
+        assertThat(drained).doesNotHaveDuplicates();
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.stats.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.stats.model.RollupGranularity.DAY;
+import static ru.practicum.stats.model.RollupGranularity.HOUR;
+
+class RangeSegmentTest {
+
+    @Test
+    void keepsRangeWithinOneHourRaw() {
+        assertThat(RangeSegment.split(time(1, 10, 15), time(1, 10, 45)))
+                .containsExactly(new RangeSegment(null, time(1, 10, 15), time(1, 10, 45)));
+    }
+
+    @Test
+    void keepsRangeCrossingOneHourEdgeRaw() {
+        assertThat(RangeSegment.split(time(1, 10, 30), time(1, 11, 30)))
+                .containsExactly(new RangeSegment(null, time(1, 10, 30), time(1, 11, 30)));
+    }
+
+    @Test
+    void splitsRawEdgesAroundWholeHours() {
+        assertThat(RangeSegment.split(time(1, 10, 30), time(1, 13, 20))).containsExactly(
+                new RangeSegment(null, time(1, 10, 30), time(1, 11, 0)),
+                new RangeSegment(HOUR, time(1, 11, 0), time(1, 13, 0)),
+                new RangeSegment(null, time(1, 13, 0), time(1, 13, 20)));
+    }
+
+    @Test
+    void usesOnlyRollupsForRangeAlignedToHours() {
+        assertThat(RangeSegment.split(time(1, 10, 0), time(1, 12, 0)))
+                .containsExactly(new RangeSegment(HOUR, time(1, 10, 0), time(1, 12, 0)));
+    }
+
+    @Test
+    void splitsDaysInsideHours() {
+        assertThat(RangeSegment.split(time(1, 22, 10), time(4, 2, 5))).containsExactly(
+                new RangeSegment(null, time(1, 22, 10), time(1, 23, 0)),
+                new RangeSegment(HOUR, time(1, 23, 0), time(2, 0, 0)),
+                new RangeSegment(DAY, time(2, 0, 0), time(4, 0, 0)),
+                new RangeSegment(HOUR, time(4, 0, 0), time(4, 2, 0)),
+                new RangeSegment(null, time(4, 2, 0), time(4, 2, 5)));
+    }
+
+    @Test
+    void usesOnlyDaysForRangeAlignedToDays() {
+        assertThat(RangeSegment.split(time(1, 0, 0), time(3, 0, 0)))
+                .containsExactly(new RangeSegment(DAY, time(1, 0, 0), time(3, 0, 0)));
+    }
+
+    @Test
+    void usesHoursWhenRangeCrossesMidnightWithoutWholeDay() {
+        assertThat(RangeSegment.split(time(1, 20, 0), time(2, 3, 0)))
+                .containsExactly(new RangeSegment(HOUR, time(1, 20, 0), time(2, 3, 0)));
+    }
+
+    @Test
+    void coversRangeWithoutGapsOrOverlaps() {
+
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(12_345);
+
+        for (int hours = 0; hours < 80; hours += 7) {
+            LocalDateTime end = start.plusHours(hours).plusSeconds(hours * 61L);
+
+            List<RangeSegment> segments = RangeSegment.split(start, end);
+
+            LocalDateTime cursor = start;
+
+            for (RangeSegment segment : segments) {
+                assertThat(segment.start()).isEqualTo(cursor);
+                assertThat(segment.start()).isBefore(segment.end());
+                if (!segment.isRaw()) {
+                    assertThat(segment.granularity().floor(segment.start())).isEqualTo(segment.start());
+                    assertThat(segment.granularity().floor(segment.end())).isEqualTo(segment.end());
+                }
+                cursor = segment.end();
+            }
+
+            assertThat(cursor).isEqualTo(segments.isEmpty() ? start : end);
+        }
+    }
+
+    private static LocalDateTime time(int day, int hour, int minute) {
+        return LocalDateTime.of(2024, 1, day, hour, minute);
+    }
+}
@@ -0,0 +1,239 @@
+package ru.practicum.stats.segment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.practicum.stats.dto.ViewStatsDto;
+import ru.practicum.stats.model.EndpointHit;
+import ru.practicum.stats.model.HitApp;
+import ru.practicum.stats.model.HitUri;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class SegmentTest {
+
+    private static final LocalDateTime BUCKET = LocalDateTime.of(2024, 1, 15, 0, 0);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void recoversJournal() throws IOException {
+
+        Path path = directory.resolve("hits-000000000000.log");
+
+        ActiveSegment segment = ActiveSegment.create(path, BUCKET);
+
+        List<EndpointHit> first = hits(new Random(1), 100);
+        List<EndpointHit> second = hits(new Random(2), 50);
+
+        append(segment, first);
+        append(segment, second);
+        segment.close();
+
+        ActiveSegment recovered = ActiveSegment.recover(path);
+
+        assertThat(recovered).isNotNull();
+        assertThat(recovered.rows()).isEqualTo(150);
+        assertThat(recovered.bucketStart()).isEqualTo(BUCKET);
+        assertEquivalent(recovered, segment);
+
+        recovered.close();
+    }
+
+    @Test
+    void truncatesTornTailAndKeepsAppending() throws IOException {
+
+        Path path = directory.resolve("hits-000000000000.log");
+
+        ActiveSegment segment = ActiveSegment.create(path, BUCKET);
+
+        append(segment, hits(new Random(1), 10));
+
+        long complete = Files.size(path);
+
+        append(segment, hits(new Random(2), 1));
+        segment.close();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(path) - 3);
+        }
+
+        ActiveSegment recovered = ActiveSegment.recover(path);
+
+        assertThat(recovered).isNotNull();
+        assertThat(recovered.rows()).isEqualTo(10);
+        assertThat(Files.size(path)).isEqualTo(complete);
+
+        append(recovered, hits(new Random(3), 5));
+        recovered.close();
+
+        ActiveSegment reopened = ActiveSegment.recover(path);
+
+        assertThat(reopened).isNotNull();
+        assertThat(reopened.rows()).isEqualTo(15);
+
+        reopened.close();
+    }
+
+    @Test
+    void dropsJournalWithoutHeader() throws IOException {
+
+        Path path = directory.resolve("hits-000000000000.log");
+
+        Files.write(path, new byte[]{1, 2, 3});
+
+        assertThat(ActiveSegment.recover(path)).isNull();
+        assertThat(path).doesNotExist();
+    }
+
+    @Test
+    void rollsBackUnappliedWrite() throws IOException {
+
+        Path path = directory.resolve("hits-000000000000.log");
+
+        ActiveSegment segment = ActiveSegment.create(path, BUCKET);
+
+        append(segment, hits(new Random(1), 10));
+
+        long position = segment.write(hits(new Random(2), 10), false);
+
+        segment.rollback(position);
+        segment.close();
+
+        ActiveSegment recovered = ActiveSegment.recover(path);
+
+        assertThat(recovered).isNotNull();
+        assertThat(recovered.rows()).isEqualTo(10);
+
+        recovered.close();
+    }
+
+    @Test
+    void sealedSegmentMatchesActiveSegment() throws IOException {
+
+        ActiveSegment active = ActiveSegment.create(directory.resolve("hits-000000000000.log"), BUCKET);
+
+        append(active, hits(new Random(7), 5_000));
+
+        SealedSegment sealed = SealedSegment.write(active, directory.resolve("hits-000000000000.seg"));
+
+        assertThat(sealed.bucketStart()).isEqualTo(active.bucketStart());
+        assertThat(sealed.minTimestamp()).isEqualTo(active.minTimestamp());
+        assertThat(sealed.maxTimestamp()).isEqualTo(active.maxTimestamp());
+        assertEquivalent(sealed, active);
+
+        SealedSegment reopened = SealedSegment.open(sealed.path());
+
+        assertEquivalent(reopened, active);
+        assertThat(directory).isDirectoryNotContaining("glob:**.tmp");
+
+        active.close();
+    }
+
+    @Test
+    void removesTemporaryFileWhenSealFails() throws IOException {
+
+        ActiveSegment active = ActiveSegment.create(directory.resolve("hits-000000000000.log"), BUCKET);
+
+        append(active, hits(new Random(7), 10));
+
+        Path target = directory.resolve("hits-000000000000.seg");
+
+        Files.createDirectories(target.resolve("occupied"));
+
+        assertThatThrownBy(() -> SealedSegment.write(active, target)).isInstanceOf(IOException.class);
+        assertThat(directory).isDirectoryNotContaining("glob:**.tmp");
+
+        active.close();
+    }
+
+    @Test
+    void approximateUniqueCountsStayCloseToExact() throws IOException {
+
+        ActiveSegment active = ActiveSegment.create(directory.resolve("hits-000000000000.log"), BUCKET);
+
+        append(active, hits(new Random(11), 20_000));
+
+        SegmentQuery exact = SegmentQuery.range(BUCKET, BUCKET.plusDays(1), List.of(), true, false);
+        SegmentQuery approx = SegmentQuery.range(BUCKET, BUCKET.plusDays(1), List.of(), true, true);
+
+        Map<String, Long> exactCounts = byKey(aggregate(active, exact).toDtos(true));
+        Map<String, Long> approxCounts = byKey(aggregate(active, approx).toDtos(true));
+
+        assertThat(approxCounts).hasSameSizeAs(exactCounts);
+
+        exactCounts.forEach((key, count) ->
+                assertThat((double) approxCounts.get(key)).isCloseTo(count, within(count * 0.03 + 1)));
+
+        active.close();
+    }
+
+    private static void assertEquivalent(Segment actual, Segment expected) {
+
+        LocalDateTime midday = BUCKET.plusHours(12);
+
+        List<SegmentQuery> queries = List.of(
+                SegmentQuery.range(BUCKET, BUCKET.plusDays(1), List.of(), false, false),
+                SegmentQuery.range(BUCKET, BUCKET.plusDays(1), List.of(), true, false),
+                SegmentQuery.range(midday, midday.plusHours(3), List.of("/events/1", "/events/7"), false, false),
+                SegmentQuery.range(midday, midday.plusHours(3), List.of("/events/1", "/events/7"), true, false),
+                SegmentQuery.views(Map.of("/events/2", midday, "/events/3", BUCKET.plusHours(1)),
+                        BUCKET.plusHours(20), true));
+
+        for (SegmentQuery query : queries) {
+            assertThat(aggregate(actual, query).toDtos(query.unique()))
+                    .containsExactlyInAnyOrderElementsOf(aggregate(expected, query).toDtos(query.unique()));
+        }
+    }
+
+    private static SegmentCounts aggregate(Segment segment, SegmentQuery query) {
+        SegmentCounts counts = new SegmentCounts(query.approx());
+        segment.aggregate(query, counts);
+        return counts;
+    }
+
+    private static Map<String, Long> byKey(List<ViewStatsDto> stats) {
+        Map<String, Long> result = new HashMap<>();
+        stats.forEach(dto -> result.put(dto.getApp() + dto.getUri(), dto.getHits()));
+        return result;
+    }
+
+    private static void append(ActiveSegment segment, List<EndpointHit> hits) throws IOException {
+        segment.write(hits, false);
+        segment.apply(hits);
+    }
+
+    private static List<EndpointHit> hits(Random random, int count) throws UnknownHostException {
+
+        List<EndpointHit> hits = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            EndpointHit hit = new EndpointHit();
+            hit.setApp(new HitApp(1 + random.nextInt(2), "app-" + random.nextInt(2)));
+            hit.setUri(new HitUri(1, "/events/" + random.nextInt(10)));
+            hit.setIp(random.nextInt(10) == 0
+                    ? InetAddress.getByName("2001:db8::" + Integer.toHexString(random.nextInt(500)))
+                    : InetAddress.getByAddress(new byte[]{10, 0, (byte) random.nextInt(8), (byte) random.nextInt(250)}));
+            hit.setTimestamp(BUCKET.plusSeconds(random.nextInt(24 * 60 * 60)));
+            hits.add(hit);
+        }
+
+        return hits;
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.stats.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    /**
+     * Три стандартные ошибки: 1.04 / sqrt(2^14) ≈ 0.81%.
+     */
+    private static final double TOLERANCE = 3 * 0.0081;
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertThat(new HyperLogLog().estimate()).isZero();
+    }
+
+    @Test
+    void estimatesWithinErrorBounds() {
+
+        for (int cardinality : new int[]{10, 1_000, 10_000, 100_000, 1_000_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+
+            for (int i = 0; i < cardinality; i++) {
+                sketch.add(ip(i));
+            }
+
+            assertThat((double) sketch.estimate()).isCloseTo(cardinality, within(cardinality * TOLERANCE + 1));
+        }
+    }
+
+    @Test
+    void ignoresRepeatedValues() {
+
+        HyperLogLog sketch = new HyperLogLog();
+
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 500; i++) {
+                sketch.add(ip(i));
+            }
+        }
+
+        assertThat((double) sketch.estimate()).isCloseTo(500, within(500 * TOLERANCE));
+    }
+
+    @Test
+    void staysSparseForSmallSetsAndSwitchesToDense() {
+
+        HyperLogLog sketch = new HyperLogLog();
+
+        for (int i = 0; i < 100; i++) {
+            sketch.add(ip(i));
+        }
+
+        assertThat(sketch.isSparse()).isTrue();
+        assertThat(sketch.toBytes().length).isLessThan(HyperLogLog.REGISTERS);
+
+        for (int i = 100; i < 10 * HyperLogLog.SPARSE_LIMIT; i++) {
+            sketch.add(ip(i));
+        }
+
+        assertThat(sketch.isSparse()).isFalse();
+        assertThat(sketch.toBytes()).hasSize(HyperLogLog.REGISTERS);
+    }
+
+    @Test
+    void mergeMatchesSketchOfUnion() {
+
+        HyperLogLog union = new HyperLogLog();
+        HyperLogLog sparse = new HyperLogLog();
+        HyperLogLog dense = new HyperLogLog();
+
+        for (int i = 0; i < 200; i++) {
+            sparse.add(ip(i));
+            union.add(ip(i));
+        }
+
+        for (int i = 100; i < 20_000; i++) {
+            dense.add(ip(i));
+            union.add(ip(i));
+        }
+
+        HyperLogLog sparseFirst = HyperLogLog.fromBytes(sparse.toBytes());
+        sparseFirst.merge(dense);
+
+        HyperLogLog denseFirst = HyperLogLog.fromBytes(dense.toBytes());
+        denseFirst.merge(sparse);
+
+        assertThat(sparseFirst.toBytes()).isEqualTo(union.toBytes());
+        assertThat(denseFirst.toBytes()).isEqualTo(union.toBytes());
+    }
+
+    @Test
+    void roundTripsThroughBytes() {
+
+        HyperLogLog sparse = new HyperLogLog();
+        HyperLogLog dense = new HyperLogLog();
+
+        for (int i = 0; i < 50; i++) {
+            sparse.add(ip(i));
+        }
+
+        for (int i = 0; i < 50_000; i++) {
+            dense.add(ip(i));
+        }
+
+        assertThat(HyperLogLog.fromBytes(sparse.toBytes()).estimate()).isEqualTo(sparse.estimate());
+        assertThat(HyperLogLog.fromBytes(sparse.toBytes()).isSparse()).isTrue();
+        assertThat(HyperLogLog.fromBytes(dense.toBytes()).estimate()).isEqualTo(dense.estimate());
+    }
+
+    @Test
+    void rejectsCorruptedBytes() {
+
+        HyperLogLog sketch = new HyperLogLog();
+
+        sketch.add("10.0.0.1");
+        sketch.add("10.0.0.2");
+
+        byte[] bytes = sketch.toBytes();
+
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[0])).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[]{1, 0}))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        byte[] zeroRank = bytes.clone();
+        zeroRank[3] = 0;
+
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(zeroRank)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String ip(int value) {
+        return (value >>> 24) + "." + (value >>> 16 & 0xFF) + "." + (value >>> 8 & 0xFF) + "." + (value & 0xFF);
+    }
+}